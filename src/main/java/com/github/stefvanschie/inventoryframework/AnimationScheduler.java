@@ -0,0 +1,271 @@
+package com.github.stefvanschie.inventoryframework;
+
+import com.github.stefvanschie.inventoryframework.pane.AnimatedPane;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Drives all running animations of the server from a single repeating task. Every tick the animations which are due
+ * are advanced and their new frames are rendered, until the time spent in that tick exceeds the budget. Animations
+ * which didn't get their turn are the first to be advanced in the next tick, so animations are delayed rather than
+ * skipped when the budget is exceeded. At least one animation is advanced every tick, regardless of the budget.
+ * Animations of panes which aren't shown by any open gui are paused until a gui showing them is opened again. This
+ * should only be used from the main thread.
+ */
+public final class AnimationScheduler {
+
+    /**
+     * The running animations, in the order in which they get their turn
+     */
+    private static final Deque<Animation> QUEUE = new ArrayDeque<>();
+
+    /**
+     * The running animations by their pane
+     */
+    private static final Map<AnimatedPane, Animation> ANIMATIONS = new IdentityHashMap<>();
+
+    /**
+     * The plugins running the paused animations by their pane. Panes don't override equals, so they're compared by
+     * identity. Paused panes are only weakly referenced, so panes of guis which are no longer used can be collected.
+     */
+    private static final Map<AnimatedPane, Plugin> PAUSED = new WeakHashMap<>();
+
+    /**
+     * The time that may be spent advancing and rendering animations each tick, in nanoseconds
+     */
+    private static long budget = Duration.ofMillis(2).toNanos();
+
+    /**
+     * The amount of ticks the task has been running for
+     */
+    private static long tick;
+
+    /**
+     * The repeating task advancing the animations, or null if no animations are running
+     */
+    @Nullable
+    private static BukkitTask task;
+
+    /**
+     * The plugin that owns the task, or null if no animations are running
+     */
+    @Nullable
+    private static Plugin owner;
+
+    /**
+     * A utility class, which can't be instantiated
+     */
+    private AnimationScheduler() {}
+
+    /**
+     * Starts running the given pane's animation. The animation stops when it's stopped explicitly, when it reaches its
+     * last frame without looping, when a gui containing it is disposed or when the plugin is disabled. If the animation
+     * was already running, it's continued as is. A paused animation is resumed.
+     *
+     * @param pane the pane
+     * @param plugin the plugin running the animation
+     */
+    public static void start(@NotNull AnimatedPane pane, @NotNull Plugin plugin) {
+        PAUSED.remove(pane);
+
+        if (ANIMATIONS.containsKey(pane))
+            return;
+
+        Animation animation = new Animation(pane, plugin, tick + pane.getTicksPerFrame());
+
+        ANIMATIONS.put(pane, animation);
+        QUEUE.offer(animation);
+
+        //tasks are cancelled by bukkit when their plugin is disabled
+        if (task != null && owner != null && owner.isEnabled())
+            return;
+
+        task = Bukkit.getScheduler().runTaskTimer(plugin, AnimationScheduler::tick, 1, 1);
+        owner = plugin;
+    }
+
+    /**
+     * Stops running the given pane's animation. The pane keeps showing its current frame.
+     *
+     * @param pane the pane
+     */
+    public static void stop(@NotNull AnimatedPane pane) {
+        PAUSED.remove(pane);
+
+        Animation animation = ANIMATIONS.remove(pane);
+
+        //removed from the queue on its next turn
+        if (animation != null)
+            animation.stopped = true;
+    }
+
+    /**
+     * Pauses the given pane's animation, if it's running, until it's resumed. The pane keeps showing its current frame.
+     * This is done once the last open gui showing the pane is closed.
+     *
+     * @param pane the pane
+     */
+    static void pause(@NotNull AnimatedPane pane) {
+        Animation animation = ANIMATIONS.remove(pane);
+
+        if (animation == null)
+            return;
+
+        //removed from the queue on its next turn
+        animation.stopped = true;
+
+        PAUSED.put(pane, animation.plugin);
+    }
+
+    /**
+     * Resumes the given pane's animation, if it was paused and its plugin is still enabled. This is done when a gui
+     * showing the pane is opened.
+     *
+     * @param pane the pane
+     */
+    static void resume(@NotNull AnimatedPane pane) {
+        Plugin plugin = PAUSED.remove(pane);
+
+        if (plugin != null && plugin.isEnabled())
+            start(pane, plugin);
+    }
+
+    /**
+     * Returns whether the given pane's animation is running, including while it's paused
+     *
+     * @param pane the pane
+     * @return true if the animation is running, false otherwise
+     */
+    @Contract(pure = true)
+    public static boolean isRunning(@NotNull AnimatedPane pane) {
+        return ANIMATIONS.containsKey(pane) || PAUSED.containsKey(pane);
+    }
+
+    /**
+     * Sets the time that may be spent advancing and rendering animations each tick. This budget is shared by all
+     * animations on the server.
+     *
+     * @param budget the budget
+     */
+    public static void setBudget(@NotNull Duration budget) {
+        assert !budget.isNegative() : "budget can't be negative";
+
+        AnimationScheduler.budget = budget.toNanos();
+    }
+
+    /**
+     * Returns the time that may be spent advancing and rendering animations each tick
+     *
+     * @return the budget
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static Duration getBudget() {
+        return Duration.ofNanos(budget);
+    }
+
+    /**
+     * Advances the animations which are due and renders their new frames, until the budget for this tick is exceeded
+     */
+    private static void tick() {
+        tick++;
+
+        long start = System.nanoTime();
+        boolean advanced = false;
+
+        //every animation gets at most one turn per tick
+        for (int turns = QUEUE.size(); turns > 0; turns--) {
+            Animation animation = QUEUE.peek();
+
+            if (animation.stopped || !animation.plugin.isEnabled()) {
+                QUEUE.poll();
+                ANIMATIONS.remove(animation.pane, animation);
+                continue;
+            }
+
+            if (animation.due > tick) {
+                QUEUE.offer(QUEUE.poll());
+                continue;
+            }
+
+            //the remaining animations go first in the next tick
+            if (advanced && System.nanoTime() - start >= budget)
+                break;
+
+            QUEUE.poll();
+            advanced = true;
+
+            boolean running = animation.pane.nextFrame();
+
+            //rendering the new frame is the expensive part, so it's done here to count towards the budget
+            RenderScheduler.flush(animation.pane);
+
+            if (!running) {
+                ANIMATIONS.remove(animation.pane, animation);
+                continue;
+            }
+
+            animation.due = tick + animation.pane.getTicksPerFrame();
+            QUEUE.offer(animation);
+        }
+
+        if (!QUEUE.isEmpty() || task == null)
+            return;
+
+        task.cancel();
+        task = null;
+        owner = null;
+    }
+
+    /**
+     * A running animation
+     */
+    private static final class Animation {
+
+        /**
+         * The pane being animated
+         */
+        @NotNull
+        private final AnimatedPane pane;
+
+        /**
+         * The plugin running the animation
+         */
+        @NotNull
+        private final Plugin plugin;
+
+        /**
+         * The tick at which the next frame is due
+         */
+        private long due;
+
+        /**
+         * Whether the animation has been stopped
+         */
+        private boolean stopped;
+
+        /**
+         * Creates a new running animation
+         *
+         * @param pane the pane being animated
+         * @param plugin the plugin running the animation
+         * @param due the tick at which the first frame is due
+         */
+        private Animation(@NotNull AnimatedPane pane, @NotNull Plugin plugin, long due) {
+            this.pane = pane;
+            this.plugin = plugin;
+            this.due = due;
+        }
+    }
+}
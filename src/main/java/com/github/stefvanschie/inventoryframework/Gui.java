@@ -1,15 +1,16 @@
 package com.github.stefvanschie.inventoryframework;
 
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.AnimatedPane;
 import com.github.stefvanschie.inventoryframework.pane.OutlinePane;
 import com.github.stefvanschie.inventoryframework.pane.PaginatedPane;
 import com.github.stefvanschie.inventoryframework.pane.StaticPane;
+import com.github.stefvanschie.inventoryframework.pane.util.FrameBuffer;
 import com.github.stefvanschie.inventoryframework.pane.util.Pane;
-import com.github.stefvanschie.inventoryframework.util.XMLUtil;
+import com.github.stefvanschie.inventoryframework.template.GuiTemplate;
+import com.github.stefvanschie.inventoryframework.util.SchedulerUtil;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.entity.HumanEntity;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.inventory.Inventory;
@@ -18,20 +19,13 @@ import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -42,7 +36,19 @@ import java.util.stream.Collectors;
  *
  * @since 5.6.0
  */
-public class Gui implements Listener, InventoryHolder {
+public class Gui implements InventoryHolder {
+
+    /**
+     * The plugin this gui belongs to
+     */
+    @NotNull
+    private final Plugin plugin;
+
+    /**
+     * The listener handling the events of this gui
+     */
+    @NotNull
+    private final GuiListener listener;
 
     /**
      * A set of all panes in this inventory
@@ -50,10 +56,51 @@ public class Gui implements Listener, InventoryHolder {
     private final List<Pane> panes;
 
     /**
-     * The inventory of this gui
+     * The inventory of this gui, null once this gui has been disposed
      */
     private Inventory inventory;
 
+    /**
+     * The frame buffer the panes of this gui are rendered in before being pushed to the inventory
+     */
+    private FrameBuffer frame;
+
+    /**
+     * Whether the panes have been rendered into the current frame buffer
+     */
+    private boolean rendered;
+
+    /**
+     * The amount of rows of this gui, which may not have been applied to the inventory yet
+     */
+    private int rows;
+
+    /**
+     * The title of this gui, which may not have been applied to the inventory yet
+     */
+    private String title;
+
+    /**
+     * Whether the rows or title have been changed since they were last applied to the inventory
+     */
+    private boolean reshaped;
+
+    /**
+     * The views of this gui which are currently being shown
+     */
+    @NotNull
+    private final Set<GuiView> views = new LinkedHashSet<>();
+
+    /**
+     * Whether this gui has been disposed
+     */
+    private boolean disposed;
+
+    /**
+     * Whether this gui should dispose itself once the last viewer closes it
+     */
+    private boolean autoDispose;
+
     /**
      * The consumer that will be called once a players clicks in the gui
      */
@@ -75,6 +122,11 @@ public class Gui implements Listener, InventoryHolder {
      */
     private static final Map<String, BiFunction<Object, Element, Pane>> PANE_MAPPINGS = new HashMap<>();
 
+    /**
+     * The amount of guis which have been created, but not yet disposed
+     */
+    private static final AtomicInteger LIVE_GUIS = new AtomicInteger();
+
     /**
      * Constructs a new GUI
      *
@@ -82,13 +134,18 @@ public class Gui implements Listener, InventoryHolder {
      * @param rows the amount of rows this gui should contain
      * @param title the title/name of this gui
      */
-    public Gui(Plugin plugin, int rows, String title) {
+    public Gui(@NotNull Plugin plugin, int rows, String title) {
         assert rows >= 1 && rows <= 6 : "amount of rows outside range";
 
+        this.plugin = plugin;
         this.panes = new ArrayList<>();
+        this.rows = rows;
+        this.title = title;
         this.inventory = Bukkit.createInventory(this, rows * 9, title);
+        this.frame = new FrameBuffer(inventory.getSize());
+        this.listener = GuiListener.register(plugin);
 
-        Bukkit.getPluginManager().registerEvents(this, plugin);
+        LIVE_GUIS.incrementAndGet();
     }
 
     /**
@@ -103,35 +160,204 @@ public class Gui implements Listener, InventoryHolder {
     }
 
     /**
-     * Shows a gui to a player
+     * Shows a gui to a player. If the player is already viewing this gui, the gui is only updated.
      *
      * @param humanEntity the human entity to show the gui to
+     * @throws IllegalStateException if this gui has been disposed
      */
     public void show(HumanEntity humanEntity) {
-        inventory.clear();
+        if (disposed)
+            throw new IllegalStateException("gui is disposed");
+
+        if (reshaped)
+            reshape();
 
         //initialize the inventory first
-        panes.stream().filter(Pane::isVisible).forEach(pane -> pane.display(inventory, 0, 0,
-                9, getRows()));
+        refresh(null);
+
+        //opening the inventory again would reset the cursor and resend the entire window
+        if (!inventory.getViewers().contains(humanEntity))
+            humanEntity.openInventory(inventory);
 
-        humanEntity.openInventory(inventory);
+        open();
     }
 
     /**
-     * Sets the amount of rows for this inventory. This will (unlike most other methods) directly update itself in order
-     * to ensure all viewers will still be viewing the new inventory as well.
+     * Renders all visible panes into the frame buffer and pushes the slots that changed since the last render to the
+     * inventory and the inventories of all views being shown
+     */
+    private void render() {
+        render(null);
+    }
+
+    /**
+     * Renders the visible panes into the given slots of the frame buffer, or into the whole frame buffer, and pushes
+     * the slots that changed since the last render to the inventory and the inventories of all views being shown.
+     * Panes which don't cover any of the given slots aren't rendered at all.
      *
-     * @param rows the amount of rows
+     * @param slots the slots, indexed by slot, or null to render all slots
      */
-    public void setRows(int rows) {
-        assert rows >= 1 && rows <= 6 : "rows should be between 1 and 6";
+    private void render(@Nullable boolean[] slots) {
+        draw(slots);
+
+        frame.flush(inventory);
+        views.forEach(view -> view.flush(frame));
+    }
+
+    /**
+     * Renders like {@link #render(boolean[])}, but first discards the server-native copies of the items rendered in the
+     * given slots, so changes made to their item stacks since the last render are shown as well, even if their items
+     * weren't marked as changed. This is used when the gui is shown or updated explicitly.
+     *
+     * @param slots the slots, indexed by slot, or null to render all slots
+     */
+    private void refresh(@Nullable boolean[] slots) {
+        draw(slots);
+
+        for (int slot = 0; slot < frame.getSize(); slot++) {
+            GuiItem item = frame.getItem(slot);
+
+            if (item != null && (slots == null || slots[slot]))
+                item.discardNativeItem();
+        }
+
+        frame.flush(inventory);
+        views.forEach(view -> view.flush(frame));
+    }
+
+    /**
+     * Renders the visible panes into the given slots of the frame buffer, or into the whole frame buffer, without
+     * pushing anything to the inventories. Panes which don't cover any of the given slots aren't rendered at all.
+     *
+     * @param slots the slots, indexed by slot, or null to render all slots
+     */
+    private void draw(@Nullable boolean[] slots) {
+        if (slots == null)
+            frame.clear();
+        else
+            frame.clear(slots);
+
+        for (Pane pane : panes) {
+            if (!pane.isVisible() || slots != null && !frame.intersects(pane, slots))
+                continue;
+
+            frame.enterPane(pane, 0, 0, 9, getRows());
+            pane.display(frame, 0, 0, 9, getRows());
+            frame.exitPane();
+        }
+
+        rendered = true;
+    }
+
+    /**
+     * Applies the rows and title that were set since they were last applied. If they actually changed, the inventory
+     * is replaced by a new one, which is filled with the current frame before it's opened for the viewers of the
+     * previous inventory. The frame is reused as is when only the title changed, otherwise the panes are
+     * rendered again for the new rows, but only if the gui is being viewed.
+     */
+    private void reshape() {
+        reshaped = false;
+
+        if (inventory.getSize() == rows * 9 && Objects.equals(inventory.getTitle(), title))
+            return;
 
         //copy the viewers
         List<HumanEntity> viewers = new ArrayList<>(inventory.getViewers());
 
-        this.inventory = Bukkit.createInventory(this, rows * 9, this.inventory.getTitle());
+        this.inventory = Bukkit.createInventory(this, rows * 9, title);
+
+        if (frame.getSize() != inventory.getSize()) {
+            this.frame = new FrameBuffer(inventory.getSize());
+            this.rendered = false;
+        }
+
+        if (!rendered && (!viewers.isEmpty() || !views.isEmpty()))
+            draw(null);
+
+        if (rendered)
+            frame.fill(inventory);
 
         viewers.forEach(humanEntity -> humanEntity.openInventory(inventory));
+        views.forEach(view -> view.rebuild(frame));
+    }
+
+    /**
+     * Creates a new view of this gui. The view shows this gui, but allows overriding the items in some of its slots,
+     * without creating a gui of its own.
+     *
+     * @return the view
+     * @throws IllegalStateException if this gui has been disposed
+     * @see GuiView
+     */
+    @NotNull
+    @Contract("-> new")
+    public GuiView createView() {
+        if (disposed)
+            throw new IllegalStateException("gui is disposed");
+
+        return new GuiView(this);
+    }
+
+    /**
+     * Adds a view to the views being shown, so it gets updated whenever this gui is updated
+     *
+     * @param view the view
+     * @throws IllegalStateException if this gui has been disposed
+     */
+    void addView(@NotNull GuiView view) {
+        if (disposed)
+            throw new IllegalStateException("gui is disposed");
+
+        views.add(view);
+
+        open();
+    }
+
+    /**
+     * Starts tracking this gui as being viewed and resumes the animations that were paused when it was last closed
+     */
+    private void open() {
+        RenderScheduler.open(this);
+
+        for (Pane pane : getPanes()) {
+            if (pane instanceof AnimatedPane)
+                AnimationScheduler.resume((AnimatedPane) pane);
+        }
+    }
+
+    /**
+     * Returns the frame buffer the panes are rendered into, rendering them first if this hasn't happened yet
+     *
+     * @return the frame buffer
+     * @throws IllegalStateException if this gui has been disposed
+     */
+    @NotNull
+    FrameBuffer getFrame() {
+        if (disposed)
+            throw new IllegalStateException("gui is disposed");
+
+        if (reshaped)
+            reshape();
+
+        if (!rendered)
+            render();
+
+        return frame;
+    }
+
+    /**
+     * Sets the amount of rows for this inventory. The change is applied at the start of the next tick, or when the gui
+     * is shown or updated before that, so changing the rows and title in the same tick only replaces the inventory
+     * once. Viewers are moved to the new inventory, which is filled with the panes right away.
+     *
+     * @param rows the amount of rows
+     */
+    public void setRows(int rows) {
+        assert rows >= 1 && rows <= 6 : "rows should be between 1 and 6";
+
+        this.rows = rows;
+
+        markReshaped();
     }
 
     /**
@@ -151,18 +377,28 @@ public class Gui implements Listener, InventoryHolder {
     }
 
     /**
-     * Sets the title for this inventory. This will (unlike most other methods) directly update itself in order
-     * to ensure all viewers will still be viewing the new inventory as well.
+     * Sets the title for this inventory. The change is applied at the start of the next tick, or when the gui is shown
+     * or updated before that, so changing the title multiple times in the same tick only replaces the inventory once.
+     * Viewers are moved to the new inventory, which is filled with the current contents right away.
      *
      * @param title the title
      */
     public void setTitle(String title) {
-        //copy the viewers
-        List<HumanEntity> viewers = new ArrayList<>(inventory.getViewers());
+        this.title = title;
 
-        this.inventory = Bukkit.createInventory(this, this.inventory.getSize(), title);
+        markReshaped();
+    }
 
-        viewers.forEach(humanEntity -> humanEntity.openInventory(inventory));
+    /**
+     * Schedules the rows and title to be applied at the start of the next tick
+     */
+    private void markReshaped() {
+        if (disposed || reshaped)
+            return;
+
+        reshaped = true;
+
+        RenderScheduler.markReshaped(this);
     }
 
     /**
@@ -177,140 +413,319 @@ public class Gui implements Listener, InventoryHolder {
     }
 
     /**
-     * Update the gui for everyone
+     * Update the gui for everyone. The panes are rendered once into the inventory shared by all viewers, the viewers
+     * keep their window open.
      *
+     * @throws IllegalStateException if this gui has been disposed
      * @since 5.6.0
      */
     public void update() {
-        new HashSet<>(inventory.getViewers()).forEach(this::show);
+        if (disposed)
+            throw new IllegalStateException("gui is disposed");
+
+        if (reshaped)
+            reshape();
+
+        refresh(null);
     }
 
     /**
-     * Loads a Gui from a given input stream
+     * Updates only the region covered by the given pane, for example after changing the page of a paginated pane. Other
+     * panes are only rendered inside this region, and only the slots inside it are pushed to the inventory. If the
+     * region of the pane isn't known, because it wasn't displayed in the last render, the whole gui is updated.
      *
-     * @param plugin the main plugin
-     * @param instance the class instance for all reflection lookups
-     * @param inputStream the file
-     * @return the gui
-     * @since 5.6.0
+     * @param pane the pane, which may be nested inside other panes
+     * @throws IllegalStateException if this gui has been disposed
      */
-    @Nullable
-    @Contract("_, _, null -> fail")
-    public static Gui load(Plugin plugin, Object instance, InputStream inputStream) {
-        try {
-            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(inputStream);
-            Element documentElement = document.getDocumentElement();
+    public void update(@NotNull Pane pane) {
+        if (disposed)
+            throw new IllegalStateException("gui is disposed");
 
-            documentElement.normalize();
+        if (reshaped)
+            reshape();
 
-            Gui gui = new Gui(plugin, Integer.parseInt(documentElement.getAttribute("rows")), ChatColor
-                    .translateAlternateColorCodes('&', documentElement.getAttribute("title")));
+        boolean[] slots = rendered ? frame.getSlots(pane) : null;
 
-            if (documentElement.hasAttribute("field")) {
-                try {
-                    Field field = instance.getClass().getField(documentElement.getAttribute("field"));
+        refresh(slots);
+    }
 
-                    field.setAccessible(true);
-                    field.set(instance, gui);
-                } catch (NoSuchFieldException | IllegalAccessException e) {
-                    e.printStackTrace();
-                }
-            }
+    /**
+     * Marks this gui as changed, so it's updated entirely at the start of the next tick. Unlike {@link #update()}, this
+     * can be called any amount of times in a single tick while the gui is only rendered once. Use
+     * {@link Pane#markDirty()} or {@link GuiItem#markDirty()} to update only the region of a single pane or item.
+     */
+    public void markDirty() {
+        if (!disposed)
+            RenderScheduler.markDirty(this);
+    }
 
-            if (documentElement.hasAttribute("onLocalClick"))
-                gui.setOnLocalClick(XMLUtil.loadOnClickAttribute(instance, documentElement));
-            
-            if (documentElement.hasAttribute("onGlobalClick")) {
-                for (Method method : instance.getClass().getMethods()) {
-                    if (!method.getName().equals(documentElement.getAttribute("onGlobalClick")))
-                        continue;
-
-                    int parameterCount = method.getParameterCount();
-
-                    if (parameterCount == 0) {
-                        gui.setOnGlobalClick(event -> {
-                            try {
-                                method.setAccessible(true);
-                                method.invoke(instance);
-                            } catch (IllegalAccessException | InvocationTargetException e) {
-                                e.printStackTrace();
-                            }
-                        });
-                    } else if (parameterCount == 1 &&
-                            InventoryClickEvent.class.isAssignableFrom(method.getParameterTypes()[0])) {
-                        gui.setOnGlobalClick(event -> {
-                            try {
-                                method.setAccessible(true);
-                                method.invoke(instance, event);
-                            } catch (IllegalAccessException | InvocationTargetException e) {
-                                e.printStackTrace();
-                            }
-                        });
-                    }
-                }
-            }
+    /**
+     * Updates this gui for the changes marked in the last tick. The whole gui is rendered if it was marked itself,
+     * otherwise only the slots of the marked panes and items it displays are rendered. Views showing any of the marked
+     * items in place of the gui's items are updated as well. Guis which aren't being viewed are skipped, since they're
+     * rendered entirely when they're shown again.
+     *
+     * @param dirty whether this gui was marked as changed
+     * @param dirtyPanes the panes marked as changed
+     * @param dirtyItems the items marked as changed
+     */
+    void flush(boolean dirty, @NotNull Set<Pane> dirtyPanes, @NotNull Set<GuiItem> dirtyItems) {
+        if (!disposed && reshaped)
+            reshape();
 
-            if (documentElement.hasAttribute("onClose")) {
-                for (Method method : instance.getClass().getMethods()) {
-                    if (!method.getName().equals(documentElement.getAttribute("onClose")))
-                        continue;
-
-                    int parameterCount = method.getParameterCount();
-
-                    if (parameterCount == 0) {
-                        gui.setOnClose(event -> {
-                            try {
-                                method.setAccessible(true);
-                                method.invoke(instance);
-                            } catch (IllegalAccessException | InvocationTargetException e) {
-                                e.printStackTrace();
-                            }
-                        });
-                    } else if (parameterCount == 1 &&
-                            InventoryCloseEvent.class.isAssignableFrom(method.getParameterTypes()[0])) {
-                        gui.setOnClose(event -> {
-                            try {
-                                method.setAccessible(true);
-                                method.invoke(instance, event);
-                            } catch (IllegalAccessException | InvocationTargetException e) {
-                                e.printStackTrace();
-                            }
-                        });
-                    }
-                }
-            }
+        if (disposed || !rendered || getState() == State.IDLE)
+            return;
 
-            if (documentElement.hasAttribute("populate")) {
-                try {
-                    Method method = instance.getClass().getMethod("populate", Gui.class);
+        if (dirty) {
+            render();
+            return;
+        }
 
-                    method.setAccessible(true);
-                    method.invoke(instance, gui);
-                } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                    e.printStackTrace();
+        boolean[] slots = null;
+        Collection<Pane> panes = null;
+
+        for (Pane pane : dirtyPanes) {
+            boolean[] paneSlots = frame.getSlots(pane);
+
+            //the pane may be part of this gui without having been displayed, like a pane that was hidden or just added
+            if (paneSlots == null) {
+                if (panes == null)
+                    panes = getPanes();
+
+                if (panes.contains(pane)) {
+                    render();
+                    return;
                 }
 
-                return gui;
+                continue;
             }
 
-            NodeList childNodes = documentElement.getChildNodes();
-            for (int i = 0; i < childNodes.getLength(); i++) {
-                Node item = childNodes.item(i);
+            if (slots == null)
+                slots = new boolean[frame.getSize()];
+
+            for (int slot = 0; slot < slots.length; slot++)
+                slots[slot] |= paneSlots[slot];
+        }
 
-                if (item.getNodeType() != Node.ELEMENT_NODE)
+        if (!dirtyItems.isEmpty()) {
+            for (int slot = 0; slot < frame.getSize(); slot++) {
+                GuiItem item = frame.getItem(slot);
+
+                if (item == null || !dirtyItems.contains(item))
                     continue;
 
-                gui.addPane(loadPane(instance, item));
+                if (slots == null)
+                    slots = new boolean[frame.getSize()];
+
+                slots[slot] = true;
             }
+        }
 
-            return gui;
-        } catch (ParserConfigurationException | SAXException | IOException | NumberFormatException e) {
+        if (slots != null) {
+            render(slots);
+            return;
+        }
+
+        //items of views aren't part of the frame, so a view may have to be updated without rendering anything
+        if (dirtyItems.isEmpty())
+            return;
+
+        for (GuiView view : views) {
+            if (view.overrides(dirtyItems))
+                view.flush(frame);
+        }
+    }
+
+    /**
+     * Disposes this gui. All viewers will have their inventory closed, after which the inventory, the panes and the
+     * click and close consumers of this gui are released. Once the last gui of a plugin has been disposed, the listener
+     * of that plugin is unregistered as well. A disposed gui can't be shown anymore.
+     */
+    public void dispose() {
+        if (disposed)
+            return;
+
+        disposed = true;
+
+        new ArrayList<>(inventory.getViewers()).forEach(HumanEntity::closeInventory);
+        new ArrayList<>(views).forEach(view ->
+            new ArrayList<>(view.getInventory().getViewers()).forEach(HumanEntity::closeInventory));
+
+        release();
+    }
+
+    /**
+     * Resets this gui, so it can be used again as if it was just created, keeping its inventory, title and rows. All
+     * viewers have their inventory closed, after which the panes, views and click and close consumers are removed and
+     * the inventory is emptied. Automatic disposal is turned off.
+     *
+     * @throws IllegalStateException if this gui has been disposed
+     * @see GuiPool
+     */
+    public void reset() {
+        if (disposed)
+            throw new IllegalStateException("gui is disposed");
+
+        //don't dispose when the viewers are closed below
+        autoDispose = false;
+
+        new ArrayList<>(inventory.getViewers()).forEach(HumanEntity::closeInventory);
+        new ArrayList<>(views).forEach(view ->
+            new ArrayList<>(view.getInventory().getViewers()).forEach(HumanEntity::closeInventory));
+
+        clear();
+    }
+
+    /**
+     * Removes the panes, views and click and close consumers from this gui and empties its inventory
+     */
+    private void clear() {
+        stopAnimations();
+
+        panes.clear();
+        views.clear();
+
+        onLocalClick = null;
+        onGlobalClick = null;
+        onClose = null;
+
+        frame.clear();
+        frame.flush(inventory);
+        rendered = false;
+
+        RenderScheduler.close(this);
+    }
+
+    /**
+     * Stops the animations of all animated panes in this gui, so they don't keep running once the gui is no longer used
+     */
+    private void stopAnimations() {
+        for (Pane pane : getPanes()) {
+            if (pane instanceof AnimatedPane)
+                ((AnimatedPane) pane).stop();
+        }
+    }
+
+    /**
+     * Releases all resources held by this gui. This should only be called once this gui has been marked as disposed.
+     */
+    private void release() {
+        stopAnimations();
+
+        panes.clear();
+        views.clear();
+
+        inventory = null;
+        frame = null;
+        onLocalClick = null;
+        onGlobalClick = null;
+        onClose = null;
+
+        GuiListener.unregister(listener);
+        RenderScheduler.close(this);
+        LIVE_GUIS.decrementAndGet();
+    }
+
+    /**
+     * Pauses the animations of all animated panes in this gui which aren't shown by another open gui, so they don't
+     * keep running while nobody can see them. They're resumed once this gui is shown again.
+     */
+    private void pauseAnimations() {
+        for (Pane pane : getPanes()) {
+            if (pane instanceof AnimatedPane && !RenderScheduler.isOpen(pane))
+                AnimationScheduler.pause((AnimatedPane) pane);
+        }
+    }
+
+    /**
+     * Sets whether this gui should dispose itself once the last viewer closes it. This is off by default.
+     *
+     * @param autoDispose whether this gui should dispose itself automatically
+     * @see #dispose()
+     */
+    public void setAutoDispose(boolean autoDispose) {
+        this.autoDispose = autoDispose;
+    }
+
+    /**
+     * Returns whether this gui disposes itself once the last viewer closes it
+     *
+     * @return true if this gui disposes itself automatically, false otherwise
+     */
+    @Contract(pure = true)
+    public boolean isAutoDispose() {
+        return autoDispose;
+    }
+
+    /**
+     * Returns the current state of this gui
+     *
+     * @return the state
+     */
+    @NotNull
+    @Contract(pure = true)
+    public State getState() {
+        if (disposed)
+            return State.DISPOSED;
+
+        return inventory.getViewers().isEmpty() && views.isEmpty() ? State.IDLE : State.OPEN;
+    }
+
+    /**
+     * Returns the amount of guis which have been created, but not disposed yet. This can be used to verify that guis
+     * are properly disposed of.
+     *
+     * @return the amount of live guis
+     */
+    @Contract(pure = true)
+    public static int getLiveGuiCount() {
+        return LIVE_GUIS.get();
+    }
+
+    /**
+     * Loads a Gui from a given input stream. When the same file is loaded repeatedly, consider compiling it once with
+     * {@link GuiTemplate#compile(InputStream)} and instantiating the template instead.
+     *
+     * @param plugin the main plugin
+     * @param instance the class instance for all reflection lookups
+     * @param inputStream the file
+     * @return the gui
+     * @since 5.6.0
+     */
+    @Nullable
+    @Contract("_, _, null -> fail")
+    public static Gui load(Plugin plugin, Object instance, InputStream inputStream) {
+        try {
+            return GuiTemplate.compile(inputStream).instantiate(plugin, instance);
+        } catch (XMLLoadException e) {
             e.printStackTrace();
         }
 
         return null;
     }
 
+    /**
+     * Loads a Gui from a given input stream asynchronously. The file is read and compiled, and the panes and items are
+     * created on a worker thread, so loading large files doesn't hold up the server. Only the gui itself is created on
+     * the main thread. See {@link GuiTemplate#instantiateAsync(Plugin, Object)} for which methods are called from which
+     * thread.
+     *
+     * @param plugin the main plugin
+     * @param instance the class instance for all reflection lookups
+     * @param inputStream the file, which is read from a worker thread
+     * @return a future which is completed with the gui on the main thread, or completed exceptionally with an
+     * {@link XMLLoadException} when the file couldn't be loaded
+     * @since 5.6.0
+     */
+    @NotNull
+    @Contract("_, _, null -> fail")
+    public static CompletableFuture<Gui> loadAsync(@NotNull Plugin plugin, @NotNull Object instance,
+                                                   @NotNull InputStream inputStream) {
+        return CompletableFuture.supplyAsync(() -> GuiTemplate.compile(inputStream),
+            SchedulerUtil.getAsyncExecutor(plugin))
+            .thenCompose(template -> template.instantiateAsync(plugin, instance));
+    }
+
     /**
      * Set the consumer that should be called whenever this gui is clicked in.
      *
@@ -335,7 +750,7 @@ public class Gui implements Listener, InventoryHolder {
      * @return the amount of rows
      */
     public int getRows() {
-        return inventory.getSize() / 9;
+        return rows;
     }
 
     /**
@@ -344,15 +759,29 @@ public class Gui implements Listener, InventoryHolder {
      * @return the title
      */
     public String getTitle() {
-        return inventory.getTitle();
+        return title;
+    }
+
+    /**
+     * Returns the plugin this gui belongs to
+     *
+     * @return the plugin
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Plugin getPlugin() {
+        return plugin;
     }
 
     /**
      * {@inheritDoc}
      *
+     * The inventory is released once this gui is disposed, after which null is returned.
+     *
      * @since 5.6.0
      */
-    @NotNull
+    @Nullable
+    @Contract(pure = true)
     @Override
     public Inventory getInventory() {
         return inventory;
@@ -409,22 +838,66 @@ public class Gui implements Listener, InventoryHolder {
     }
 
     /**
-     * Handles clicks in inventories
+     * Handles clicks in this gui. This is called by the {@link GuiListener} of this gui's plugin for every click in a
+     * view of which this gui is the top inventory.
      * 
      * @param event the event fired
      */
-    @EventHandler(ignoreCancelled = true)
     public void onInventoryClick(InventoryClickEvent event) {
-        if (event.getCurrentItem() == null || !this.equals(event.getClickedInventory().getHolder())) {
-            if (this.equals(event.getInventory().getHolder()))
-                if (onGlobalClick != null)
-                    onGlobalClick.accept(event);
+        onInventoryClick(event, null);
+    }
+
+    /**
+     * Handles clicks in this gui or in one of its views. Items of the view take precedence over the items of this gui.
+     *
+     * @param event the event fired
+     * @param view the view the click happened in, or null if it happened in this gui's own inventory
+     */
+    void onInventoryClick(@NotNull InventoryClickEvent event, @Nullable GuiView view) {
+        InventoryHolder holder = event.getClickedInventory() == null ? null : event.getClickedInventory().getHolder();
+
+        if (event.getCurrentItem() == null || !this.equals(holder) && (view == null || !view.equals(holder))) {
+            if (onGlobalClick != null)
+                onGlobalClick.accept(event);
             return;
         }
 
         if (onLocalClick != null)
             onLocalClick.accept(event);
 
+        int slot = event.getSlot();
+        GuiItem viewItem = view == null ? null : view.getItem(slot);
+
+        if (viewItem != null) {
+            Consumer<InventoryClickEvent> action = viewItem.getAction();
+
+            //the slot may hold something else after an earlier click went through
+            if (action != null && viewItem.isVisible() && viewItem.peekItem().equals(event.getCurrentItem()))
+                action.accept(event);
+
+            return;
+        }
+
+        GuiItem item = frame.getItem(slot);
+
+        //the frame buffer knows which item was rendered in this slot and through which panes, as long as the slot still
+        //shows that item; these are the same panes whose click methods would call their consumers
+        if (item != null && frame.isValid() && item.isVisible() && item.peekItem().equals(event.getCurrentItem())) {
+            for (Pane pane : frame.getPanes(slot)) {
+                Consumer<InventoryClickEvent> paneClick = pane.getOnLocalClick();
+
+                if (paneClick != null)
+                    paneClick.accept(event);
+            }
+
+            Consumer<InventoryClickEvent> action = item.getAction();
+
+            if (action != null)
+                action.accept(event);
+
+            return;
+        }
+
         //loop through the panes reverse, because the pane with the highest priority (last in list) is most likely to have the correct item
         for (int i = panes.size() - 1; i >= 0; i--) {
             if (panes.get(i).click(event, 0, 0, 9, getRows()))
@@ -433,16 +906,92 @@ public class Gui implements Listener, InventoryHolder {
     }
 
     /**
-     * Handles closing in inventories
+     * Called once a change to the contents of this gui's inventory, or the inventory of one of its views, which wasn't
+     * made by this gui has gone through, for example an item taken out by a player when a click wasn't cancelled. The
+     * next render will update every slot of the changed inventory.
+     *
+     * @param view the view whose inventory was changed, or null if this gui's own inventory was changed
+     */
+    void onInventoryChange(@Nullable GuiView view) {
+        if (disposed)
+            return;
+
+        if (view == null)
+            frame.invalidate();
+        else
+            view.invalidate();
+    }
+
+    /**
+     * Handles closing of this gui. This is called by the {@link GuiListener} of this gui's plugin.
      *
      * @param event the event fired
      */
-    @EventHandler(ignoreCancelled = true)
     public void onInventoryClose(InventoryCloseEvent event) {
-        if (onClose == null)
+        onInventoryClose(event, null);
+    }
+
+    /**
+     * Handles closing of this gui or one of its views. A view is no longer updated once its last viewer closes it. Once
+     * the last viewer of all views and the gui itself closes it, its animations are paused, or the gui disposes itself
+     * if it does so automatically.
+     * Guis acquired from a {@link GuiPool} aren't returned to it here, since their last viewer may only be moving to
+     * another gui and come back to this one later.
+     *
+     * @param event the event fired
+     * @param view the view that was closed, or null if this gui's own inventory was closed
+     */
+    void onInventoryClose(@NotNull InventoryCloseEvent event, @Nullable GuiView view) {
+        if (onClose != null)
+            onClose.accept(event);
+
+        //inventories left behind by setRows and setTitle are ignored
+        if (disposed || !event.getInventory().equals(view == null ? inventory : view.getInventory()))
+            return;
+
+        //the closing viewer is still part of the viewers at this point
+        int viewers = inventory.getViewers().size();
+
+        for (GuiView shownView : views)
+            viewers += shownView.getInventory().getViewers().size();
+
+        if (view != null && view.getInventory().getViewers().size() <= 1)
+            views.remove(view);
+
+        if (viewers > 1)
             return;
 
-        onClose.accept(event);
+        RenderScheduler.close(this);
+
+        if (!autoDispose) {
+            pauseAnimations();
+            return;
+        }
+
+        disposed = true;
+
+        release();
+    }
+
+    /**
+     * The lifecycle states of a gui
+     */
+    public enum State {
+
+        /**
+         * The gui is being viewed by at least one human entity
+         */
+        OPEN,
+
+        /**
+         * The gui isn't being viewed, but can still be shown
+         */
+        IDLE,
+
+        /**
+         * The gui has been disposed and can no longer be used
+         */
+        DISPOSED
     }
 
     static {
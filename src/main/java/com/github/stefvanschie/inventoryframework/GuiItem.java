@@ -1,5 +1,6 @@
 package com.github.stefvanschie.inventoryframework;
 
+import com.github.stefvanschie.inventoryframework.util.ItemStackUtil;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.Contract;
@@ -23,7 +24,19 @@ public class GuiItem {
      * The items shown
      */
     @NotNull
-    private final ItemStack item;
+    private ItemStack item;
+
+    /**
+     * Whether the item is shared with other gui items, in which case it's copied before it's handed out
+     */
+    private boolean shared;
+
+    /**
+     * A copy of the item in the server's own item stack implementation, which is reused for every render, or null if it
+     * has to be made again
+     */
+    @Nullable
+    private ItemStack nativeItem;
 
     /**
      * Whether this item is visible or not
@@ -64,16 +77,89 @@ public class GuiItem {
     }
 
     /**
-     * Returns the item
+     * Returns the item. If the item is shared with other gui items, it's copied first, so changes made to the returned
+     * item only affect this gui item. Changes made to the returned item are shown by the next
+     * {@link Gui#update()}, or at the start of the next tick once {@link #markDirty()} is called.
      *
      * @return the item that belongs to this gui item
      */
     @NotNull
-    @Contract(pure = true)
     public ItemStack getItem() {
+        //the caller may change the item
+        discardNativeItem();
+
+        if (shared) {
+            item = item.clone();
+            shared = false;
+        }
+
+        return item;
+    }
+
+    /**
+     * Returns the item without copying it, even if it's shared with other gui items. The returned item may not be
+     * modified, use {@link #getItem()} for that instead.
+     *
+     * @return the item that belongs to this gui item
+     */
+    @NotNull
+    @Contract(pure = true)
+    public ItemStack peekItem() {
         return item;
     }
 
+    /**
+     * Returns a copy of the item in the server's own item stack implementation, which can be put in an inventory
+     * without being converted first. The copy is made once and reused until the item is handed out by
+     * {@link #getItem()}, marked as changed by {@link #markDirty()} or rendered by an explicit update of its gui. The
+     * returned item may not be modified.
+     *
+     * @return the copy of the item
+     */
+    @NotNull
+    public ItemStack getNativeItem() {
+        if (nativeItem == null)
+            nativeItem = ItemStackUtil.toNative(item);
+
+        return nativeItem;
+    }
+
+    /**
+     * Creates a new gui item which shares the item stack with other gui items. The item stack is never modified by
+     * the gui item: it's copied the first time it's requested by {@link #getItem()}.
+     *
+     * @param item the item stack, which may not be modified afterwards
+     * @param action the action called whenever an interaction with this item happens
+     * @return the gui item
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    public static GuiItem shared(@NotNull ItemStack item, @Nullable Consumer<InventoryClickEvent> action) {
+        GuiItem guiItem = new GuiItem(item, action);
+
+        guiItem.shared = true;
+
+        return guiItem;
+    }
+
+    /**
+     * Marks this item as changed, so every gui and view displaying it has the slots of this item updated at the start
+     * of the next tick. Items that aren't displayed, like invisible items, can't be found this way; mark the pane
+     * they're in instead.
+     */
+    public void markDirty() {
+        discardNativeItem();
+
+        RenderScheduler.markDirty(this);
+    }
+
+    /**
+     * Discards the server-native copy of the item, so it's made again from the item the next time it's needed
+     */
+    void discardNativeItem() {
+        nativeItem = null;
+    }
+
     /**
      * Returns whether or not this item is visible
      *
@@ -0,0 +1,223 @@
+package com.github.stefvanschie.inventoryframework;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Listens for inventory events on behalf of all guis of a single plugin. Only one listener is registered per plugin,
+ * events are routed to the gui, or view of a gui, they belong to by looking at the holder of the inventory, so the cost
+ * of an event does not depend on the amount of guis that have been created. The listener is unregistered again once
+ * all guis of its plugin have been disposed.
+ */
+public class GuiListener implements Listener {
+
+    /**
+     * The plugin this listener belongs to
+     */
+    @NotNull
+    private final Plugin plugin;
+
+    /**
+     * The amount of guis of this plugin which haven't been disposed yet
+     */
+    private int guis;
+
+    /**
+     * The listeners that are currently registered, by their plugin
+     */
+    private static final Map<Plugin, GuiListener> LISTENERS = new HashMap<>();
+
+    /**
+     * Creates a new listener for the given plugin
+     *
+     * @param plugin the plugin
+     */
+    private GuiListener(@NotNull Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles clicks in inventories
+     *
+     * @param event the event fired
+     */
+    @EventHandler(ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        InventoryHolder holder = event.getInventory().getHolder();
+        Gui gui = getGui(holder);
+
+        if (gui == null)
+            return;
+
+        gui.onInventoryClick(event, getView(holder));
+    }
+
+    /**
+     * Lets a gui know that the contents of its inventory may have changed, because a click that can reach it went
+     * through without being cancelled. Clicks in the player's own inventory can only reach the gui by moving items to
+     * the other inventory or by collecting items to the cursor.
+     *
+     * @param event the event fired
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryChange(InventoryClickEvent event) {
+        InventoryAction action = event.getAction();
+
+        if (event.getRawSlot() >= event.getInventory().getSize() && action != InventoryAction.MOVE_TO_OTHER_INVENTORY
+            && action != InventoryAction.COLLECT_TO_CURSOR)
+            return;
+
+        onInventoryChange((InventoryEvent) event);
+    }
+
+    /**
+     * Lets a gui know that the contents of its inventory may have changed, because a drag over at least one of its
+     * slots went through without being cancelled
+     *
+     * @param event the event fired
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryChange(InventoryDragEvent event) {
+        int size = event.getInventory().getSize();
+
+        if (event.getRawSlots().stream().noneMatch(slot -> slot < size))
+            return;
+
+        onInventoryChange((InventoryEvent) event);
+    }
+
+    /**
+     * Handles closing in inventories
+     *
+     * @param event the event fired
+     */
+    @EventHandler(ignoreCancelled = true)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        InventoryHolder holder = event.getInventory().getHolder();
+        Gui gui = getGui(holder);
+
+        if (gui == null)
+            return;
+
+        gui.onInventoryClose(event, getView(holder));
+    }
+
+    /**
+     * Forgets the listener of a plugin once it gets disabled. Bukkit unregisters all listeners of a disabled plugin, so
+     * a new one has to be registered if the plugin gets enabled again.
+     *
+     * @param event the event fired
+     */
+    @EventHandler
+    public void onPluginDisable(PluginDisableEvent event) {
+        if (event.getPlugin() != plugin)
+            return;
+
+        LISTENERS.remove(plugin);
+    }
+
+    /**
+     * Lets the gui the event belongs to know that the contents of its inventory may have changed
+     *
+     * @param event the event
+     */
+    private void onInventoryChange(@NotNull InventoryEvent event) {
+        InventoryHolder holder = event.getInventory().getHolder();
+        Gui gui = getGui(holder);
+
+        if (gui == null)
+            return;
+
+        gui.onInventoryChange(getView(holder));
+    }
+
+    /**
+     * Returns the gui belonging to the given holder, if the holder is a gui created by this listener's plugin or a view
+     * of such a gui
+     *
+     * @param holder the holder of an inventory
+     * @return the gui or null if the holder isn't a gui of this plugin
+     */
+    @Nullable
+    @Contract(pure = true)
+    private Gui getGui(@Nullable InventoryHolder holder) {
+        Gui gui;
+
+        if (holder instanceof Gui)
+            gui = (Gui) holder;
+        else if (holder instanceof GuiView)
+            gui = ((GuiView) holder).getGui();
+        else
+            return null;
+
+        return gui.getPlugin() == plugin ? gui : null;
+    }
+
+    /**
+     * Returns the view the given holder is
+     *
+     * @param holder the holder of an inventory
+     * @return the view or null if the holder isn't a view
+     */
+    @Nullable
+    @Contract(pure = true)
+    private static GuiView getView(@Nullable InventoryHolder holder) {
+        return holder instanceof GuiView ? (GuiView) holder : null;
+    }
+
+    /**
+     * Registers a new gui for the given plugin. This registers a listener for the plugin, unless one is already
+     * registered. The gui should hold on to the returned listener and pass it to {@link #unregister(GuiListener)} once
+     * it's disposed, so guis created before their plugin was re-enabled don't count towards the new listener.
+     *
+     * @param plugin the plugin
+     * @return the listener handling the events of the gui
+     */
+    @NotNull
+    static GuiListener register(@NotNull Plugin plugin) {
+        GuiListener listener = LISTENERS.get(plugin);
+
+        if (listener == null) {
+            listener = new GuiListener(plugin);
+
+            LISTENERS.put(plugin, listener);
+            Bukkit.getPluginManager().registerEvents(listener, plugin);
+        }
+
+        listener.guis++;
+
+        return listener;
+    }
+
+    /**
+     * Unregisters a disposed gui from the listener it was registered with. Once no guis of the listener remain, the
+     * listener is unregistered as well.
+     *
+     * @param listener the listener returned when the gui was registered
+     */
+    static void unregister(@NotNull GuiListener listener) {
+        if (--listener.guis > 0)
+            return;
+
+        //the plugin may have been re-enabled with a new listener in the meantime
+        LISTENERS.remove(listener.plugin, listener);
+        HandlerList.unregisterAll(listener);
+    }
+}
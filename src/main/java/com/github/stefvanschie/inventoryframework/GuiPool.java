@@ -0,0 +1,142 @@
+package com.github.stefvanschie.inventoryframework;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * A pool of guis for menus which are created and thrown away often, like confirmation dialogs. Instead of creating a
+ * new gui every time, a gui is acquired from the pool and returned to it with {@link #release(Gui)} once it's no
+ * longer needed, at which point it's reset so it can be handed out again. Until then, the gui can be shown as often as
+ * needed, also after its last viewer closed it.
+ */
+public class GuiPool {
+
+    /**
+     * The plugin the guis of this pool belong to
+     */
+    @NotNull
+    private final Plugin plugin;
+
+    /**
+     * The maximum amount of idle guis kept by this pool
+     */
+    private final int capacity;
+
+    /**
+     * The guis that can be handed out, most recently returned first
+     */
+    @NotNull
+    private final Deque<Gui> idle;
+
+    /**
+     * Creates a new pool
+     *
+     * @param plugin the plugin the guis belong to
+     * @param capacity the maximum amount of idle guis to keep, guis returned to a full pool are disposed
+     */
+    public GuiPool(@NotNull Plugin plugin, int capacity) {
+        assert capacity >= 0 : "capacity can't be negative";
+
+        this.plugin = plugin;
+        this.capacity = capacity;
+        this.idle = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Acquires a gui with the given amount of rows and title. An idle gui with the same rows and title is preferred,
+     * otherwise another idle gui is changed to match, or a new gui is created if no guis are idle. The gui should be
+     * returned to this pool with {@link #release(Gui)} once it's no longer needed.
+     *
+     * @param rows the amount of rows
+     * @param title the title
+     * @return an empty gui
+     */
+    @NotNull
+    public Gui acquire(int rows, @NotNull String title) {
+        Gui gui = null;
+
+        for (Iterator<Gui> iterator = idle.iterator(); iterator.hasNext(); ) {
+            Gui candidate = iterator.next();
+
+            if (candidate.getRows() == rows && candidate.getTitle().equals(title)) {
+                iterator.remove();
+                gui = candidate;
+                break;
+            }
+        }
+
+        if (gui == null && !idle.isEmpty()) {
+            gui = idle.pop();
+
+            if (gui.getRows() != rows)
+                gui.setRows(rows);
+
+            if (!gui.getTitle().equals(title))
+                gui.setTitle(title);
+        }
+
+        if (gui == null)
+            gui = new Gui(plugin, rows, title);
+
+        return gui;
+    }
+
+    /**
+     * Returns a gui to this pool. The gui is reset, closing it for all viewers, and can no longer be used by the caller.
+     * If the pool is full, the gui is disposed instead.
+     *
+     * @param gui the gui
+     */
+    public void release(@NotNull Gui gui) {
+        assert gui.getPlugin() == plugin : "gui belongs to a different plugin";
+
+        if (gui.getState() == Gui.State.DISPOSED)
+            return;
+
+        gui.reset();
+
+        if (!offer(gui))
+            gui.dispose();
+    }
+
+    /**
+     * Adds a gui that has been reset to the idle guis, unless the pool is full
+     *
+     * @param gui the gui
+     * @return true if the gui was added or already idle, false if the pool is full
+     */
+    private boolean offer(@NotNull Gui gui) {
+        if (idle.contains(gui))
+            return true;
+
+        if (idle.size() >= capacity)
+            return false;
+
+        idle.push(gui);
+
+        return true;
+    }
+
+    /**
+     * Disposes all idle guis of this pool
+     */
+    public void clear() {
+        idle.forEach(Gui::dispose);
+        idle.clear();
+    }
+
+    /**
+     * Returns the amount of idle guis in this pool
+     *
+     * @return the amount of idle guis
+     */
+    @Contract(pure = true)
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
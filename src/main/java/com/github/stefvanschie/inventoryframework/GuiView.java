@@ -0,0 +1,251 @@
+package com.github.stefvanschie.inventoryframework;
+
+import com.github.stefvanschie.inventoryframework.pane.util.FrameBuffer;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A view over a gui, which shows the gui with some of its slots overridden. Views are meant for guis that look mostly
+ * the same for every player, but contain a few items specific to a player, like their balance or stats. All views share
+ * the panes of their gui, which are only rendered once for all of them; a view only holds the items that it overrides.
+ * Clicks on items of the view are handled by the view's items, clicks on other items are handled by the gui as usual.
+ */
+public class GuiView implements InventoryHolder {
+
+    /**
+     * The gui this is a view of
+     */
+    @NotNull
+    private final Gui gui;
+
+    /**
+     * The inventory of this view
+     */
+    @NotNull
+    private Inventory inventory;
+
+    /**
+     * The items overriding the items of the gui, by their slot, with null for slots which aren't overridden
+     */
+    @NotNull
+    private GuiItem[] overlay;
+
+    /**
+     * The native item stacks which were last pushed to the inventory, by their slot. Gui items never modify their
+     * native item stacks, so these don't have to be copied.
+     */
+    @NotNull
+    private ItemStack[] shown;
+
+    /**
+     * The native item stacks being pushed to the inventory, by their slot. This is filled on every flush, so a single
+     * array is reused until the inventory is replaced.
+     */
+    @NotNull
+    private ItemStack[] contents;
+
+    /**
+     * Whether the inventory is known to contain the item stacks that were last pushed to it
+     */
+    private boolean valid;
+
+    /**
+     * Creates a new view of the given gui
+     *
+     * @param gui the gui
+     */
+    GuiView(@NotNull Gui gui) {
+        this.gui = gui;
+        this.inventory = Bukkit.createInventory(this, gui.getRows() * 9, gui.getTitle());
+        this.overlay = new GuiItem[inventory.getSize()];
+        this.shown = new ItemStack[inventory.getSize()];
+        this.contents = new ItemStack[inventory.getSize()];
+        this.valid = true;
+    }
+
+    /**
+     * Sets the item at the given position, overriding the item the gui would show there
+     *
+     * @param item the item
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void setItem(@NotNull GuiItem item, int x, int y) {
+        assert x >= 0 && x < 9 && y >= 0 && y < overlay.length / 9 : "position outside view";
+
+        overlay[y * 9 + x] = item;
+    }
+
+    /**
+     * Removes the item at the given position, so the item of the gui is shown there again
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     */
+    public void removeItem(int x, int y) {
+        assert x >= 0 && x < 9 && y >= 0 && y < overlay.length / 9 : "position outside view";
+
+        overlay[y * 9 + x] = null;
+    }
+
+    /**
+     * Removes all items of this view, so it shows the gui as is
+     */
+    public void clear() {
+        Arrays.fill(overlay, null);
+    }
+
+    /**
+     * Shows this view to a player. If the player is already viewing this view, the view is only updated.
+     *
+     * @param humanEntity the human entity to show the view to
+     * @throws IllegalStateException if the gui has been disposed
+     */
+    public void show(@NotNull HumanEntity humanEntity) {
+        gui.addView(this);
+
+        FrameBuffer frame = gui.getFrame();
+
+        discardNativeItems();
+
+        //the gui may have changed its title or rows while this view wasn't shown
+        if (inventory.getSize() != frame.getSize() || !Objects.equals(inventory.getTitle(), gui.getTitle()))
+            rebuild(frame);
+        else
+            flush(frame);
+
+        if (!inventory.getViewers().contains(humanEntity))
+            humanEntity.openInventory(inventory);
+    }
+
+    /**
+     * Updates this view. Only the items of this view and the last rendered frame of the gui are pushed to the
+     * inventory, the panes of the gui aren't rendered again; use {@link Gui#update()} for that. Changes made to the
+     * item stacks of this view's items are shown, even if the items weren't marked as changed.
+     *
+     * @throws IllegalStateException if the gui has been disposed
+     */
+    public void update() {
+        FrameBuffer frame = gui.getFrame();
+
+        discardNativeItems();
+        flush(frame);
+    }
+
+    /**
+     * Discards the server-native copies of the items of this view, so changes made to their item stacks since they were
+     * last pushed are shown as well, even if the items weren't marked as changed
+     */
+    private void discardNativeItems() {
+        for (GuiItem item : overlay) {
+            if (item != null)
+                item.discardNativeItem();
+        }
+    }
+
+    /**
+     * Returns the item this view shows in the given slot instead of the item of the gui
+     *
+     * @param slot the slot
+     * @return the item or null if this view doesn't override the slot
+     */
+    @Nullable
+    @Contract(pure = true)
+    GuiItem getItem(int slot) {
+        return slot < overlay.length ? overlay[slot] : null;
+    }
+
+    /**
+     * Returns whether this view shows any of the given items in place of the items of the gui
+     *
+     * @param items the items
+     * @return true if any of the items is shown by this view, false otherwise
+     */
+    @Contract(pure = true)
+    boolean overrides(@NotNull Set<GuiItem> items) {
+        for (GuiItem item : overlay) {
+            if (item != null && items.contains(item))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Pushes the given frame to the inventory, with the items of this view taking precedence. Only slots whose item
+     * stack differs from the one that was last pushed are updated.
+     *
+     * @param frame the frame of the gui
+     */
+    void flush(@NotNull FrameBuffer frame) {
+        for (int slot = 0; slot < shown.length; slot++) {
+            GuiItem guiItem = overlay[slot] == null ? frame.getItem(slot) : overlay[slot];
+
+            contents[slot] = guiItem == null ? null : guiItem.getNativeItem();
+        }
+
+        FrameBuffer.push(inventory, contents, shown, null, !valid);
+
+        valid = true;
+    }
+
+    /**
+     * Forgets which items were last pushed to the inventory, so the next update updates every slot
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Replaces the inventory of this view by one with the current size and title of the gui, fills it with the given
+     * frame and reopens it for all viewers. Items of this view which no longer fit are removed.
+     *
+     * @param frame the frame of the gui
+     */
+    void rebuild(@NotNull FrameBuffer frame) {
+        //copy the viewers
+        List<HumanEntity> viewers = new ArrayList<>(inventory.getViewers());
+
+        this.inventory = Bukkit.createInventory(this, gui.getRows() * 9, gui.getTitle());
+        this.overlay = Arrays.copyOf(overlay, inventory.getSize());
+        this.shown = new ItemStack[inventory.getSize()];
+        this.contents = new ItemStack[inventory.getSize()];
+        this.valid = true;
+
+        flush(frame);
+
+        viewers.forEach(humanEntity -> humanEntity.openInventory(inventory));
+    }
+
+    /**
+     * Returns the gui this is a view of
+     *
+     * @return the gui
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Gui getGui() {
+        return gui;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.stefvanschie.inventoryframework;
+
+import com.github.stefvanschie.inventoryframework.pane.util.Pane;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Collects guis, panes and items which have been marked as changed and updates the affected guis once at the start of
+ * the next tick. However many changes are made in a single tick, every gui is rendered at most once, and only the slots
+ * of the changed panes and items are rendered again, unless the gui as a whole was marked. Which guis are affected by a
+ * pane or item is determined when flushing, by looking at what each open gui displayed in its last render, so panes and
+ * items don't need to know which guis they're part of. Only guis which are being viewed are tracked, guis which aren't
+ * are rendered entirely when they're shown again anyway. This should only be used from the main thread.
+ */
+public final class RenderScheduler {
+
+    /**
+     * The guis which are currently being viewed
+     */
+    private static final Set<Gui> OPEN_GUIS = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The guis which have been marked as changed since the last flush
+     */
+    private static final Set<Gui> DIRTY_GUIS = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The guis whose title or rows have been changed since the last flush
+     */
+    private static final Set<Gui> RESHAPED_GUIS = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The panes which have been marked as changed since the last flush
+     */
+    private static final Set<Pane> DIRTY_PANES = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The items which have been marked as changed since the last flush
+     */
+    private static final Set<GuiItem> DIRTY_ITEMS = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Whether a flush has been scheduled
+     */
+    private static boolean scheduled;
+
+    /**
+     * A utility class, which can't be instantiated
+     */
+    private RenderScheduler() {}
+
+    /**
+     * Marks a pane as changed, so every gui displaying it has the pane's region rendered again in the next tick
+     *
+     * @param pane the pane
+     */
+    public static void markDirty(@NotNull Pane pane) {
+        DIRTY_PANES.add(pane);
+
+        schedule(null);
+    }
+
+    /**
+     * Marks an item as changed, so every gui displaying it has the item's slots rendered again in the next tick
+     *
+     * @param item the item
+     */
+    public static void markDirty(@NotNull GuiItem item) {
+        DIRTY_ITEMS.add(item);
+
+        schedule(null);
+    }
+
+    /**
+     * Marks a gui as changed, so it's rendered again entirely in the next tick
+     *
+     * @param gui the gui
+     */
+    static void markDirty(@NotNull Gui gui) {
+        DIRTY_GUIS.add(gui);
+
+        schedule(gui);
+    }
+
+    /**
+     * Marks a gui as having its title or rows changed, so these are applied in the next tick
+     *
+     * @param gui the gui
+     */
+    static void markReshaped(@NotNull Gui gui) {
+        RESHAPED_GUIS.add(gui);
+
+        schedule(gui);
+    }
+
+    /**
+     * Starts tracking a gui which is now being viewed
+     *
+     * @param gui the gui
+     */
+    static void open(@NotNull Gui gui) {
+        OPEN_GUIS.add(gui);
+    }
+
+    /**
+     * Stops tracking a gui which is no longer being viewed or has been disposed
+     *
+     * @param gui the gui
+     */
+    static void close(@NotNull Gui gui) {
+        OPEN_GUIS.remove(gui);
+        DIRTY_GUIS.remove(gui);
+        RESHAPED_GUIS.remove(gui);
+    }
+
+    /**
+     * Returns whether any gui which is being viewed contains the given pane
+     *
+     * @param pane the pane, which may be nested inside other panes
+     * @return true if an open gui contains the pane, false otherwise
+     */
+    @Contract(pure = true)
+    static boolean isOpen(@NotNull Pane pane) {
+        for (Gui gui : OPEN_GUIS) {
+            if (gui.getPanes().contains(pane))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Schedules a flush for the next tick, unless one has already been scheduled. The flush is scheduled for the plugin
+     * of the given gui, or for the plugin of any open gui, since it covers all guis anyway.
+     *
+     * @param gui the gui that was changed, or null if a pane or item was changed
+     */
+    private static void schedule(@Nullable Gui gui) {
+        if (scheduled)
+            return;
+
+        Plugin plugin = gui != null && gui.getPlugin().isEnabled() ? gui.getPlugin() : null;
+
+        for (Iterator<Gui> iterator = OPEN_GUIS.iterator(); plugin == null && iterator.hasNext(); ) {
+            Plugin candidate = iterator.next().getPlugin();
+
+            if (candidate.isEnabled())
+                plugin = candidate;
+        }
+
+        //without any open guis nothing can be displaying the changes
+        if (plugin == null) {
+            clear();
+            return;
+        }
+
+        Bukkit.getScheduler().runTask(plugin, RenderScheduler::flush);
+        scheduled = true;
+    }
+
+    /**
+     * Updates every gui affected by the changes marked since the last flush. Only the marked guis are visited, unless
+     * panes or items were marked, in which case the open guis are visited as well.
+     */
+    private static void flush() {
+        scheduled = false;
+
+        //changes marked while flushing, like those made by the handlers of inventories closed by a reshape, are left
+        //for the next flush
+        Set<Gui> dirtyGuis = drain(DIRTY_GUIS);
+        Set<Gui> reshapedGuis = drain(RESHAPED_GUIS);
+        Set<Pane> dirtyPanes = drain(DIRTY_PANES);
+        Set<GuiItem> dirtyItems = drain(DIRTY_ITEMS);
+
+        Set<Gui> guis = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        guis.addAll(dirtyGuis);
+        guis.addAll(reshapedGuis);
+
+        if (!dirtyPanes.isEmpty() || !dirtyItems.isEmpty())
+            guis.addAll(OPEN_GUIS);
+
+        for (Gui gui : guis)
+            gui.flush(dirtyGuis.contains(gui), dirtyPanes, dirtyItems);
+    }
+
+    /**
+     * Updates the region of the given pane right away in every open gui displaying it, rather than at the start of the
+     * next tick, if the pane has been marked as changed. This lets the caller account for the time spent rendering.
+     *
+     * @param pane the pane
+     */
+    static void flush(@NotNull Pane pane) {
+        if (!DIRTY_PANES.remove(pane))
+            return;
+
+        Set<Pane> panes = Collections.singleton(pane);
+        Set<GuiItem> items = Collections.emptySet();
+
+        for (Gui gui : OPEN_GUIS.toArray(new Gui[0]))
+            gui.flush(false, panes, items);
+    }
+
+    /**
+     * Empties the given set, returning a copy of what it contained
+     *
+     * @param set the set
+     * @param <T> the type of the elements
+     * @return the copy
+     */
+    @NotNull
+    private static <T> Set<T> drain(@NotNull Set<T> set) {
+        Set<T> copy = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        copy.addAll(set);
+        set.clear();
+
+        return copy;
+    }
+
+    /**
+     * Forgets all changes
+     */
+    private static void clear() {
+        DIRTY_GUIS.clear();
+        RESHAPED_GUIS.clear();
+        DIRTY_PANES.clear();
+        DIRTY_ITEMS.clear();
+    }
+}
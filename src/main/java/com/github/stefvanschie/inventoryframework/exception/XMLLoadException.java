@@ -0,0 +1,37 @@
+package com.github.stefvanschie.inventoryframework.exception;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An exception indicating that an XML file couldn't be loaded
+ */
+public class XMLLoadException extends RuntimeException {
+
+    /**
+     * Constructs a new exception with the given message
+     *
+     * @param message the detail message
+     */
+    public XMLLoadException(@NotNull String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new exception with the given cause
+     *
+     * @param cause the cause of this exception
+     */
+    public XMLLoadException(@NotNull Throwable cause) {
+        super(cause);
+    }
+
+    /**
+     * Constructs a new exception with the given message and cause
+     *
+     * @param message the detail message
+     * @param cause the cause of this exception
+     */
+    public XMLLoadException(@NotNull String message, @NotNull Throwable cause) {
+        super(message, cause);
+    }
+}
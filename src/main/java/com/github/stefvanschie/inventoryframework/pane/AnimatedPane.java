@@ -0,0 +1,504 @@
+package com.github.stefvanschie.inventoryframework.pane;
+
+import com.github.stefvanschie.inventoryframework.AnimationScheduler;
+import com.github.stefvanschie.inventoryframework.GuiItem;
+import com.github.stefvanschie.inventoryframework.GuiLocation;
+import com.github.stefvanschie.inventoryframework.pane.util.FrameBuffer;
+import com.github.stefvanschie.inventoryframework.pane.util.Pane;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A pane which cycles through a number of frames. Frames are defined by keyframes, which only hold the items that
+ * change compared to the frame before them, and which can be held for multiple frames. While running, the animation is
+ * advanced by the {@link AnimationScheduler} at the frame rate of this pane. Advancing to a frame which looks the same
+ * as the one before it doesn't cause a render, otherwise only this pane's region is updated, at the start of the next
+ * tick.
+ */
+public class AnimatedPane extends Pane {
+
+    /**
+     * The keyframes of this animation, in order
+     */
+    @NotNull
+    private final List<Keyframe> keyframes = new ArrayList<>();
+
+    /**
+     * The items shown in every keyframe, by their position, or null if they haven't been resolved yet
+     */
+    @Nullable
+    private GuiItem[][] frames;
+
+    /**
+     * Whether any position changes when going to a keyframe from the one before it, or null if this hasn't been
+     * resolved yet
+     */
+    @Nullable
+    private boolean[] changes;
+
+    /**
+     * The index of the current keyframe
+     */
+    private int frame;
+
+    /**
+     * The amount of frames the current keyframe has been shown for
+     */
+    private int held;
+
+    /**
+     * The amount of ticks every frame is shown for
+     */
+    private int ticksPerFrame = 1;
+
+    /**
+     * Whether the animation starts over after the last keyframe
+     */
+    private boolean looping = true;
+
+    /**
+     * Constructs a new animated pane without any keyframes
+     *
+     * @param start the upper left corner of the pane
+     * @param length the length of the pane
+     * @param height the height of the pane
+     */
+    public AnimatedPane(@NotNull GuiLocation start, int length, int height) {
+        super(start, length, height);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void display(@NotNull FrameBuffer buffer, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
+        if (keyframes.isEmpty())
+            return;
+
+        int length = Math.min(this.length, maxLength);
+        int height = Math.min(this.height, maxHeight);
+
+        GuiItem[] items = getFrames()[frame];
+        int corner = (start.getY() + paneOffsetY) * 9 + start.getX() + paneOffsetX;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < length; x++) {
+                GuiItem item = items[y * this.length + x];
+
+                if (item == null || !item.isVisible())
+                    continue;
+
+                buffer.setItem(corner + y * 9 + x, item);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean click(@NotNull InventoryClickEvent event, int paneOffsetX, int paneOffsetY, int maxLength,
+                         int maxHeight) {
+        if (keyframes.isEmpty())
+            return false;
+
+        int length = Math.min(this.length, maxLength);
+        int height = Math.min(this.height, maxHeight);
+
+        int slot = event.getSlot();
+
+        //correct coordinates
+        int x = (slot % 9) - start.getX() - paneOffsetX;
+        int y = (slot / 9) - start.getY() - paneOffsetY;
+
+        //this isn't our item
+        if (x < 0 || x >= length || y < 0 || y >= height)
+            return false;
+
+        GuiItem item = getFrames()[frame][y * this.length + x];
+
+        if (item == null || !item.peekItem().equals(event.getCurrentItem()) || !item.isVisible())
+            return false;
+
+        if (onLocalClick != null)
+            onLocalClick.accept(event);
+
+        Consumer<InventoryClickEvent> action = item.getAction();
+
+        if (action != null)
+            action.accept(event);
+
+        return true;
+    }
+
+    /**
+     * Adds a keyframe at the end of the animation. The keyframe starts out looking the same as the keyframe before it.
+     *
+     * @param duration the amount of frames the keyframe is shown for
+     * @return the index of the keyframe
+     */
+    public int addFrame(int duration) {
+        assert duration > 0 : "duration must be positive";
+
+        keyframes.add(new Keyframe(duration));
+        invalidate();
+
+        return keyframes.size() - 1;
+    }
+
+    /**
+     * Adds a gui item at the specific spot in the pane, from the given keyframe onwards until another item is added or
+     * the item is removed at the same spot. The spot has to lie inside the pane: items outside of it can't be shown, so
+     * they're ignored.
+     *
+     * @param item the item to set
+     * @param frame the index of the keyframe
+     * @param x the x coordinate of the item
+     * @param y the y coordinate of the item
+     */
+    public void addItem(@NotNull GuiItem item, int frame, int x, int y) {
+        assert frame >= 0 && frame < keyframes.size() : "keyframe doesn't exist";
+        assert x >= 0 && x < length && y >= 0 && y < height : "location outside pane";
+
+        //an unchecked position would end up in another row or outside the keyframes
+        if (x < 0 || x >= length || y < 0 || y >= height)
+            return;
+
+        keyframes.get(frame).items.put(y * length + x, item);
+        invalidate();
+    }
+
+    /**
+     * Removes the gui item at the specific spot in the pane, from the given keyframe onwards until another item is
+     * added at the same spot
+     *
+     * @param frame the index of the keyframe
+     * @param x the x coordinate of the item
+     * @param y the y coordinate of the item
+     */
+    public void removeItem(int frame, int x, int y) {
+        assert frame >= 0 && frame < keyframes.size() : "keyframe doesn't exist";
+        assert x >= 0 && x < length && y >= 0 && y < height : "location outside pane";
+
+        if (x < 0 || x >= length || y < 0 || y >= height)
+            return;
+
+        keyframes.get(frame).items.put(y * length + x, null);
+        invalidate();
+    }
+
+    /**
+     * Advances the animation by one frame. This is done by the {@link AnimationScheduler} while the animation is
+     * running, but can also be used to step through the animation manually.
+     *
+     * @return false if the last frame was reached and the animation doesn't loop, true otherwise
+     */
+    public boolean nextFrame() {
+        if (keyframes.isEmpty())
+            return looping;
+
+        if (++held < keyframes.get(frame).duration)
+            return true;
+
+        if (frame + 1 == keyframes.size() && !looping) {
+            held--;
+            return false;
+        }
+
+        int next = (frame + 1) % keyframes.size();
+
+        held = 0;
+        frame = next;
+
+        if (getChanges()[next])
+            markDirty();
+
+        return true;
+    }
+
+    /**
+     * Starts running this animation. It stops once {@link #stop()} is called, or after the last frame if it doesn't
+     * loop. While no open gui shows this pane, the animation is paused.
+     *
+     * @param plugin the plugin running the animation
+     * @see AnimationScheduler#start(AnimatedPane, Plugin)
+     */
+    public void start(@NotNull Plugin plugin) {
+        AnimationScheduler.start(this, plugin);
+    }
+
+    /**
+     * Stops running this animation, it keeps showing the current frame
+     */
+    public void stop() {
+        AnimationScheduler.stop(this);
+    }
+
+    /**
+     * Returns whether this animation is running, including while it's paused because no open gui shows this pane
+     *
+     * @return true if the animation is running, false otherwise
+     */
+    @Contract(pure = true)
+    public boolean isRunning() {
+        return AnimationScheduler.isRunning(this);
+    }
+
+    /**
+     * Returns the index of the keyframe that's currently shown
+     *
+     * @return the index of the keyframe
+     */
+    @Contract(pure = true)
+    public int getFrame() {
+        return frame;
+    }
+
+    /**
+     * Jumps to the given keyframe
+     *
+     * @param frame the index of the keyframe
+     */
+    public void setFrame(int frame) {
+        assert frame >= 0 && frame < keyframes.size() : "keyframe doesn't exist";
+
+        held = 0;
+
+        if (this.frame == frame)
+            return;
+
+        GuiItem[][] frames = getFrames();
+
+        if (!Arrays.equals(frames[this.frame], frames[frame]))
+            markDirty();
+
+        this.frame = frame;
+    }
+
+    /**
+     * Returns the amount of keyframes of this animation
+     *
+     * @return the amount of keyframes
+     */
+    @Contract(pure = true)
+    public int getFrameCount() {
+        return keyframes.size();
+    }
+
+    /**
+     * Sets the amount of ticks every frame is shown for
+     *
+     * @param ticksPerFrame the amount of ticks
+     */
+    public void setTicksPerFrame(int ticksPerFrame) {
+        assert ticksPerFrame > 0 : "ticks per frame must be positive";
+
+        this.ticksPerFrame = ticksPerFrame;
+    }
+
+    /**
+     * Returns the amount of ticks every frame is shown for
+     *
+     * @return the amount of ticks
+     */
+    @Contract(pure = true)
+    public int getTicksPerFrame() {
+        return ticksPerFrame;
+    }
+
+    /**
+     * Sets whether the animation starts over after the last keyframe
+     *
+     * @param looping whether the animation loops
+     */
+    public void setLooping(boolean looping) {
+        this.looping = looping;
+    }
+
+    /**
+     * Returns whether the animation starts over after the last keyframe
+     *
+     * @return true if the animation loops, false otherwise
+     */
+    @Contract(pure = true)
+    public boolean isLooping() {
+        return looping;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Items which no longer fit inside the pane are removed.
+     */
+    @Override
+    public void setLength(int length) {
+        resize(length, height);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Items which no longer fit inside the pane are removed.
+     */
+    @Override
+    public void setHeight(int height) {
+        resize(length, height);
+    }
+
+    /**
+     * Resizes this pane, while keeping all items at the same position
+     *
+     * @param length the new length
+     * @param height the new height
+     */
+    private void resize(int length, int height) {
+        for (Keyframe keyframe : keyframes) {
+            Map<Integer, GuiItem> items = new HashMap<>();
+
+            keyframe.items.forEach((position, item) -> {
+                int x = position % this.length, y = position / this.length;
+
+                if (x < length && y < height)
+                    items.put(y * length + x, item);
+            });
+
+            keyframe.items.clear();
+            keyframe.items.putAll(items);
+        }
+
+        super.setLength(length);
+        super.setHeight(height);
+
+        invalidate();
+    }
+
+    /**
+     * Returns the items shown in every keyframe, resolving them if this hasn't happened yet
+     *
+     * @return the items by keyframe and position
+     */
+    @NotNull
+    private GuiItem[][] getFrames() {
+        if (frames != null)
+            return frames;
+
+        GuiItem[][] frames = new GuiItem[keyframes.size()][];
+        GuiItem[] items = new GuiItem[length * height];
+
+        for (int index = 0; index < frames.length; index++) {
+            items = items.clone();
+
+            for (Map.Entry<Integer, GuiItem> entry : keyframes.get(index).items.entrySet())
+                items[entry.getKey()] = entry.getValue();
+
+            frames[index] = items;
+        }
+
+        this.frames = frames;
+
+        return frames;
+    }
+
+    /**
+     * Returns whether any position changes when going to a keyframe from the one before it, resolving this if it
+     * hasn't happened yet. The first keyframe is compared to the last one.
+     *
+     * @return the changes by keyframe
+     */
+    @NotNull
+    private boolean[] getChanges() {
+        if (changes != null)
+            return changes;
+
+        GuiItem[][] frames = getFrames();
+        boolean[] changes = new boolean[frames.length];
+
+        for (int index = 0; index < frames.length; index++) {
+            GuiItem[] previous = frames[(index + frames.length - 1) % frames.length];
+
+            for (int position = 0; position < previous.length; position++) {
+                if (previous[position] != frames[index][position]) {
+                    changes[index] = true;
+                    break;
+                }
+            }
+        }
+
+        this.changes = changes;
+
+        return changes;
+    }
+
+    /**
+     * Forgets the resolved keyframes after they've been changed and marks this pane as changed
+     */
+    private void invalidate() {
+        frames = null;
+        changes = null;
+
+        markDirty();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the items of the current keyframe are returned.
+     */
+    @NotNull
+    @Override
+    public Collection<GuiItem> getItems() {
+        if (keyframes.isEmpty())
+            return new ArrayList<>();
+
+        List<GuiItem> items = new ArrayList<>();
+
+        for (GuiItem item : getFrames()[frame]) {
+            if (item != null)
+                items.add(item);
+        }
+
+        return items;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Contract(pure = true)
+    @Override
+    public Collection<Pane> getPanes() {
+        return new HashSet<>();
+    }
+
+    /**
+     * A keyframe of an animation
+     */
+    private static final class Keyframe {
+
+        /**
+         * The items that change in this keyframe by their position, with null for items that are removed
+         */
+        @NotNull
+        private final Map<Integer, GuiItem> items = new HashMap<>();
+
+        /**
+         * The amount of frames this keyframe is shown for
+         */
+        private final int duration;
+
+        /**
+         * Creates a new keyframe without any changes
+         *
+         * @param duration the amount of frames the keyframe is shown for
+         */
+        private Keyframe(int duration) {
+            this.duration = duration;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.github.stefvanschie.inventoryframework.pane;
+
+import com.github.stefvanschie.inventoryframework.GuiItem;
+import com.github.stefvanschie.inventoryframework.GuiLocation;
+import com.github.stefvanschie.inventoryframework.pane.util.FrameBuffer;
+import com.github.stefvanschie.inventoryframework.pane.util.Pane;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * A pane showing a list of entries, one page at a time. Entries are turned into items by a renderer, which is only
+ * called for the entries on the current page, so the pane can be backed by a list of any size without an item having
+ * to exist for every entry. Entries are laid out from the top-left corner going to the right and down.
+ *
+ * @param <T> the type of the entries
+ */
+public class ListPane<T> extends Pane {
+
+    /**
+     * Supplies the amount of entries
+     */
+    @NotNull
+    private final IntSupplier size;
+
+    /**
+     * Supplies the entry at an index
+     */
+    @NotNull
+    private final IntFunction<? extends T> accessor;
+
+    /**
+     * Turns an entry into an item
+     */
+    @NotNull
+    private final Function<? super T, GuiItem> renderer;
+
+    /**
+     * The current page
+     */
+    private int page;
+
+    /**
+     * The items of the entries on the current page, or null if they haven't been rendered yet
+     */
+    @Nullable
+    private GuiItem[] window;
+
+    /**
+     * Creates a new list pane backed by the given list. Changes to the list are shown once {@link #refresh()} is
+     * called.
+     *
+     * @param start the upper left corner of the pane
+     * @param length the length of the pane
+     * @param height the height of the pane
+     * @param entries the entries
+     * @param renderer turns an entry into an item
+     */
+    public ListPane(@NotNull GuiLocation start, int length, int height, @NotNull List<? extends T> entries,
+                    @NotNull Function<? super T, GuiItem> renderer) {
+        this(start, length, height, entries::size, entries::get, renderer);
+    }
+
+    /**
+     * Creates a new list pane backed by the given accessor. Changes to the entries are shown once {@link #refresh()}
+     * is called.
+     *
+     * @param start the upper left corner of the pane
+     * @param length the length of the pane
+     * @param height the height of the pane
+     * @param size supplies the amount of entries
+     * @param accessor supplies the entry at an index
+     * @param renderer turns an entry into an item
+     */
+    public ListPane(@NotNull GuiLocation start, int length, int height, @NotNull IntSupplier size,
+                    @NotNull IntFunction<? extends T> accessor, @NotNull Function<? super T, GuiItem> renderer) {
+        super(start, length, height);
+
+        this.size = size;
+        this.accessor = accessor;
+        this.renderer = renderer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void display(@NotNull FrameBuffer buffer, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
+        int length = Math.min(this.length, maxLength);
+        int height = Math.min(this.height, maxHeight);
+
+        GuiItem[] window = getWindow();
+        int corner = (start.getY() + paneOffsetY) * 9 + start.getX() + paneOffsetX;
+
+        for (int i = 0; i < window.length; i++) {
+            GuiItem item = window[i];
+            int x = i % this.length, y = i / this.length;
+
+            if (item == null || !item.isVisible() || x >= length || y >= height)
+                continue;
+
+            buffer.setItem(corner + y * 9 + x, item);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean click(@NotNull InventoryClickEvent event, int paneOffsetX, int paneOffsetY, int maxLength,
+                         int maxHeight) {
+        int length = Math.min(this.length, maxLength);
+        int height = Math.min(this.height, maxHeight);
+
+        int slot = event.getSlot();
+
+        //correct coordinates
+        int x = (slot % 9) - start.getX() - paneOffsetX;
+        int y = (slot / 9) - start.getY() - paneOffsetY;
+
+        //this isn't our item
+        if (x < 0 || x >= length || y < 0 || y >= height)
+            return false;
+
+        GuiItem item = getWindow()[y * this.length + x];
+
+        if (item == null || !item.peekItem().equals(event.getCurrentItem()) || !item.isVisible())
+            return false;
+
+        if (onLocalClick != null)
+            onLocalClick.accept(event);
+
+        Consumer<InventoryClickEvent> action = item.getAction();
+
+        if (action != null)
+            action.accept(event);
+
+        return true;
+    }
+
+    /**
+     * Returns the items of the entries on the current page, rendering them if this hasn't happened yet
+     *
+     * @return the items, with null for positions without an entry
+     */
+    @NotNull
+    private GuiItem[] getWindow() {
+        if (window != null)
+            return window;
+
+        int pageSize = length * height;
+        int first = page * pageSize;
+        int last = Math.min(first + pageSize, size.getAsInt());
+
+        GuiItem[] window = new GuiItem[pageSize];
+
+        for (int index = first; index < last; index++)
+            window[index - first] = renderer.apply(accessor.apply(index));
+
+        this.window = window;
+
+        return window;
+    }
+
+    /**
+     * Renders the entries on the current page again the next time this pane is displayed. This should be called
+     * whenever the entries on the current page, or the amount of entries, have changed.
+     */
+    public void refresh() {
+        window = null;
+    }
+
+    /**
+     * Returns the current page
+     *
+     * @return the current page
+     */
+    @Contract(pure = true)
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Sets the current page. The entries on the page are rendered the next time this pane is displayed.
+     *
+     * @param page the page
+     */
+    public void setPage(int page) {
+        assert page >= 0 && (page == 0 || page < getPages()) : "page outside range";
+
+        if (this.page == page)
+            return;
+
+        this.page = page;
+
+        refresh();
+    }
+
+    /**
+     * Returns the amount of pages needed to show all entries
+     *
+     * @return the amount of pages
+     */
+    @Contract(pure = true)
+    public int getPages() {
+        int pageSize = length * height;
+
+        return pageSize == 0 ? 0 : (size.getAsInt() + pageSize - 1) / pageSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setLength(int length) {
+        super.setLength(length);
+
+        refresh();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setHeight(int height) {
+        super.setHeight(height);
+
+        refresh();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the items of the entries on the current page are returned.
+     */
+    @NotNull
+    @Override
+    public Collection<GuiItem> getItems() {
+        List<GuiItem> items = new ArrayList<>();
+
+        for (GuiItem item : getWindow()) {
+            if (item != null)
+                items.add(item);
+        }
+
+        return items;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Contract(pure = true)
+    @Override
+    public Collection<Pane> getPanes() {
+        return new HashSet<>();
+    }
+}
@@ -2,18 +2,16 @@ package com.github.stefvanschie.inventoryframework.pane;
 
 import com.github.stefvanschie.inventoryframework.GuiLocation;
 import com.github.stefvanschie.inventoryframework.GuiItem;
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.util.FrameBuffer;
 import com.github.stefvanschie.inventoryframework.pane.util.Pane;
-import com.github.stefvanschie.inventoryframework.util.GeometryUtil;
-import org.bukkit.Material;
+import com.github.stefvanschie.inventoryframework.template.OutlinePaneTemplate;
+import com.github.stefvanschie.inventoryframework.util.GridTransform;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -73,10 +71,13 @@ public class OutlinePane extends Pane {
      * {@inheritDoc}
      */
     @Override
-    public void display(@NotNull Inventory inventory, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
+    public void display(@NotNull FrameBuffer buffer, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
         int length = Math.min(this.length, maxLength);
         int height = Math.min(this.height, maxHeight);
 
+        GridTransform transform = GridTransform.of(length, height, rotation, flipHorizontally, flipVertically);
+        int corner = (start.getY() + paneOffsetY) * 9 + start.getX() + paneOffsetX;
+
         int x = 0;
         int y = 0;
 
@@ -86,19 +87,7 @@ public class OutlinePane extends Pane {
             if (!item.isVisible())
                 continue;
 
-            int newX = x, newY = y;
-
-            if (flipHorizontally)
-                newX = length - x - 1;
-
-            if (flipVertically)
-                newY = height - y - 1;
-
-            Map.Entry<Integer, Integer> coordinates = GeometryUtil.processClockwiseRotation(newX, newY, length, height,
-                    rotation);
-
-            inventory.setItem((start.getY() + coordinates.getValue() + paneOffsetY) * 9 + (start.getX() + coordinates
-                    .getKey() + paneOffsetX), item.getItem());
+            buffer.setItem(corner + transform.getOffset(y * length + x), item);
 
             //increment positions
             if (orientation == Orientation.HORIZONTAL) {
@@ -139,18 +128,16 @@ public class OutlinePane extends Pane {
         int y = (slot / 9) - start.getY() - paneOffsetY;
 
         //this isn't our item
-        if (x < 0 || x > length || y < 0 || y > height)
+        if (x < 0 || x >= length || y < 0 || y >= height)
             return false;
 
-        Map.Entry<Integer, Integer> coordinates = GeometryUtil.processCounterClockwiseRotation(x, y, length, height, rotation);
-
-        int newX = coordinates.getKey(), newY = coordinates.getValue();
+        //undo the rotation and flips
+        int position = GridTransform.of(length, height, rotation, flipHorizontally, flipVertically).getIndex(x, y);
 
-        if (flipHorizontally)
-            newX = length - newX - 1;
+        if (position < 0)
+            return false;
 
-        if (flipVertically)
-            newY = height - newY - 1;
+        int newX = position % length, newY = position / length;
 
         int index = 0;
 
@@ -169,9 +156,12 @@ public class OutlinePane extends Pane {
 
         GuiItem item = items.get(index);
 
-        if (!item.getItem().equals(event.getCurrentItem()) || !item.isVisible())
+        if (!item.peekItem().equals(event.getCurrentItem()) || !item.isVisible())
             return false;
 
+        if (onLocalClick != null)
+            onLocalClick.accept(event);
+
         Consumer<InventoryClickEvent> action = item.getAction();
 
         if (action != null)
@@ -353,53 +343,8 @@ public class OutlinePane extends Pane {
     @Contract("_, null -> fail")
     public static OutlinePane load(Object instance, @NotNull Element element) {
         try {
-            OutlinePane outlinePane = new OutlinePane(new GuiLocation(
-                Integer.parseInt(element.getAttribute("x")),
-                Integer.parseInt(element.getAttribute("y"))),
-                Integer.parseInt(element.getAttribute("length")),
-                Integer.parseInt(element.getAttribute("height"))
-            );
-
-            if (element.hasAttribute("rotation"))
-                outlinePane.setRotation(Integer.parseInt(element.getAttribute("rotation")));
-
-            if (element.hasAttribute("orientation"))
-                outlinePane.setOrientation(Orientation.valueOf(element.getAttribute("orientation")
-                    .toUpperCase(Locale.getDefault())));
-
-            if (element.hasAttribute("gap"))
-                outlinePane.setGap(Integer.parseInt(element.getAttribute("gap")));
-
-            if (element.hasAttribute("repeat"))
-                outlinePane.setRepeat(Boolean.parseBoolean(element.getAttribute("repeat")));
-
-            if (element.hasAttribute("flipHorizontally"))
-                outlinePane.flipHorizontally(Boolean.parseBoolean(element.getAttribute("flipHorizontally")));
-
-            if (element.hasAttribute("flipVertically"))
-                outlinePane.flipVertically(Boolean.parseBoolean(element.getAttribute("flipVertically")));
-
-            Pane.load(outlinePane, instance, element);
-
-            if (element.hasAttribute("populate"))
-                return outlinePane;
-
-            NodeList childNodes = element.getChildNodes();
-
-            for (int i = 0; i < childNodes.getLength(); i++) {
-                Node item = childNodes.item(i);
-
-                if (item.getNodeType() != Node.ELEMENT_NODE)
-                    continue;
-
-                if (item.getNodeName().equals("empty"))
-                    outlinePane.addItem(new GuiItem(new ItemStack(Material.AIR)));
-                else
-                    outlinePane.addItem(Pane.loadItem(instance, (Element) item));
-            }
-
-            return outlinePane;
-        } catch (NumberFormatException e) {
+            return new OutlinePaneTemplate(element).instantiate(instance);
+        } catch (XMLLoadException e) {
             e.printStackTrace();
         }
 
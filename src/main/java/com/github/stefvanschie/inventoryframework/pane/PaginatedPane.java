@@ -1,23 +1,26 @@
 package com.github.stefvanschie.inventoryframework.pane;
 
-import com.github.stefvanschie.inventoryframework.Gui;
 import com.github.stefvanschie.inventoryframework.GuiItem;
 import com.github.stefvanschie.inventoryframework.GuiLocation;
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.util.FrameBuffer;
 import com.github.stefvanschie.inventoryframework.pane.util.Pane;
+import com.github.stefvanschie.inventoryframework.template.PaginatedPaneTemplate;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.Inventory;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 /**
- * A pane for panes that should be spread out over multiple pages
+ * A pane for panes that should be spread out over multiple pages. Pages can either be added up front, or be supplied by
+ * a page factory, in which case a page is only built once it's shown. Pages built by the factory are kept in a cache,
+ * which can be bounded to limit the amount of pages held in memory.
  */
 public class PaginatedPane extends Pane {
 
@@ -31,6 +34,32 @@ public class PaginatedPane extends Pane {
      */
     private int page;
 
+    /**
+     * The factory building the pages which weren't added up front, or null if there is none
+     */
+    @Nullable
+    private IntFunction<? extends Collection<Pane>> pageFactory;
+
+    /**
+     * The amount of pages supplied by the page factory
+     */
+    private int factoryPages;
+
+    /**
+     * The maximum amount of pages built by the page factory that are kept, or zero if there is no maximum
+     */
+    private int pageCacheSize;
+
+    /**
+     * The pages built by the page factory, least recently shown first
+     */
+    private final Map<Integer, List<Pane>> builtPages = new LinkedHashMap<Integer, List<Pane>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Pane>> eldest) {
+            return pageCacheSize > 0 && size() > pageCacheSize;
+        }
+    };
+
     /**
      * {@inheritDoc}
      */
@@ -53,8 +82,9 @@ public class PaginatedPane extends Pane {
      * @return the amount of pages
      */
     public int getPages() {
-        return panes.size();
+        return pageFactory == null ? panes.size() : factoryPages;
     }
+
     /**
      * Assigns a pane to a selected page
      *
@@ -71,23 +101,103 @@ public class PaginatedPane extends Pane {
     }
 
     /**
-     * Sets the current displayed page
+     * Sets the current displayed page. Use {@link com.github.stefvanschie.inventoryframework.Gui#update(Pane)} with
+     * this pane to redraw only the region of this pane afterwards.
      *
      * @param page the page
      */
     public void setPage(int page) {
-        assert panes.containsKey(page) : "page outside range";
+        assert panes.containsKey(page) || pageFactory != null && page >= 0 && page < factoryPages :
+            "page outside range";
 
         this.page = page;
+
+        //build the page now, rather than while rendering
+        getPage(page);
+    }
+
+    /**
+     * Sets the factory which supplies the pages of this pane. A page is built by the factory the first time it's shown
+     * and is kept in the page cache afterwards. Pages which have been added up front take precedence over the pages
+     * supplied by the factory. Any pages previously built by a factory are discarded.
+     *
+     * @param pages the amount of pages
+     * @param pageFactory the factory, which is given the page number and returns the panes of that page
+     */
+    public void setPageFactory(int pages, @NotNull IntFunction<? extends Collection<Pane>> pageFactory) {
+        assert pages >= 0 : "amount of pages can't be negative";
+
+        this.pageFactory = pageFactory;
+        this.factoryPages = pages;
+
+        builtPages.clear();
+    }
+
+    /**
+     * Sets the maximum amount of pages built by the page factory that are kept. Once more pages have been built, the
+     * pages that were least recently shown are discarded and built again when they're shown again. The current page is
+     * always kept.
+     *
+     * @param pageCacheSize the maximum amount of pages, or zero to keep all pages
+     */
+    public void setPageCacheSize(int pageCacheSize) {
+        assert pageCacheSize >= 0 : "page cache size can't be negative";
+
+        this.pageCacheSize = pageCacheSize;
+
+        //make sure the current page is the most recently used one, so it's never discarded
+        builtPages.get(page);
+
+        Iterator<Integer> iterator = builtPages.keySet().iterator();
+
+        while (pageCacheSize > 0 && builtPages.size() > pageCacheSize) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns the panes of the given page, building the page if it's supplied by the page factory and hasn't been
+     * built yet
+     *
+     * @param page the page
+     * @return the panes of the page, sorted by priority
+     */
+    @NotNull
+    private List<Pane> getPage(int page) {
+        List<Pane> panes = this.panes.get(page);
+
+        if (panes != null)
+            return panes;
+
+        if (pageFactory == null || page < 0 || page >= factoryPages)
+            return Collections.emptyList();
+
+        panes = builtPages.get(page);
+
+        if (panes == null) {
+            panes = new ArrayList<>(pageFactory.apply(page));
+            panes.sort(Comparator.comparing(Pane::getPriority));
+
+            builtPages.put(page, panes);
+        }
+
+        return panes;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void display(Inventory inventory, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
-        this.panes.get(page).forEach(pane -> pane.display(inventory, paneOffsetX + start.getX(),
-                paneOffsetY + start.getY(), Math.min(length, maxLength), Math.min(height, maxHeight)));
+    public void display(@NotNull FrameBuffer buffer, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
+        int offsetX = paneOffsetX + start.getX(), offsetY = paneOffsetY + start.getY();
+        int length = Math.min(this.length, maxLength), height = Math.min(this.height, maxHeight);
+
+        getPage(page).forEach(pane -> {
+            buffer.enterPane(pane, offsetX, offsetY, length, height);
+            pane.display(buffer, offsetX, offsetY, length, height);
+            buffer.exitPane();
+        });
     }
 
     /**
@@ -112,7 +222,7 @@ public class PaginatedPane extends Pane {
 
         boolean success = false;
 
-        for (Pane pane : this.panes.get(page))
+        for (Pane pane : getPage(page))
             success = success || pane.click(event, paneOffsetX + start.getX(),
                     paneOffsetY + start.getY(), length, height);
 
@@ -121,6 +231,8 @@ public class PaginatedPane extends Pane {
 
     /**
      * {@inheritDoc}
+     *
+     * Pages supplied by the page factory are only included if they're currently built.
      */
     @NotNull
     @Contract(pure = true)
@@ -128,10 +240,13 @@ public class PaginatedPane extends Pane {
     public Collection<Pane> getPanes() {
         Collection<Pane> panes = new HashSet<>();
 
-        this.panes.forEach((integer, p) -> {
+        BiConsumer<Integer, List<Pane>> addPanes = (integer, p) -> {
             p.forEach(pane -> panes.addAll(pane.getPanes()));
             panes.addAll(p);
-        });
+        };
+
+        this.panes.forEach(addPanes);
+        builtPages.forEach(addPanes);
 
         return panes;
     }
@@ -157,48 +272,8 @@ public class PaginatedPane extends Pane {
     @Contract("_, null -> fail")
     public static PaginatedPane load(Object instance, @NotNull Element element) {
         try {
-            PaginatedPane paginatedPane = new PaginatedPane(new GuiLocation(
-                    Integer.parseInt(element.getAttribute("x")),
-                    Integer.parseInt(element.getAttribute("y"))),
-                    Integer.parseInt(element.getAttribute("length")),
-                    Integer.parseInt(element.getAttribute("height"))
-            );
-
-            Pane.load(paginatedPane, instance, element);
-
-            if (element.hasAttribute("populate"))
-                return paginatedPane;
-
-            int pageCount = 0;
-
-            NodeList childNodes = element.getChildNodes();
-            for (int i = 0; i < childNodes.getLength(); i++) {
-                Node item = childNodes.item(i);
-
-                if (item.getNodeType() != Node.ELEMENT_NODE)
-                    continue;
-
-                NodeList innerNodes = item.getChildNodes();
-
-                List<Pane> panes = new ArrayList<>();
-
-                for (int j = 0; j < innerNodes.getLength(); j++) {
-                    Node pane = innerNodes.item(j);
-
-                    if (pane.getNodeType() != Node.ELEMENT_NODE)
-                        continue;
-
-                    panes.add(Gui.loadPane(instance, pane));
-                }
-
-                for (Pane pane : panes)
-                    paginatedPane.addPane(pageCount, pane);
-
-                pageCount++;
-            }
-
-            return paginatedPane;
-        } catch (NumberFormatException e) {
+            return new PaginatedPaneTemplate(element).instantiate(instance);
+        } catch (XMLLoadException e) {
             e.printStackTrace();
         }
 
@@ -2,17 +2,17 @@ package com.github.stefvanschie.inventoryframework.pane;
 
 import com.github.stefvanschie.inventoryframework.GuiLocation;
 import com.github.stefvanschie.inventoryframework.GuiItem;
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.util.FrameBuffer;
 import com.github.stefvanschie.inventoryframework.pane.util.Pane;
-import com.github.stefvanschie.inventoryframework.util.GeometryUtil;
+import com.github.stefvanschie.inventoryframework.template.StaticPaneTemplate;
+import com.github.stefvanschie.inventoryframework.util.GridTransform;
 import org.bukkit.Material;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.Inventory;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -24,9 +24,10 @@ import java.util.stream.Collectors;
 public class StaticPane extends Pane {
 
     /**
-     * A set of items inside this pane
+     * The items inside this pane, by their position. The item at (x, y) is stored at index y * length + x.
      */
-    private final Set<Map.Entry<GuiItem, GuiLocation>> items;
+    @NotNull
+    private GuiItem[] items;
 
     /**
      * The clockwise rotation of this pane in degrees
@@ -48,49 +49,111 @@ public class StaticPane extends Pane {
     public StaticPane(@NotNull GuiLocation start, int length, int height) {
         super(start, length, height);
 
-        this.items = new HashSet<>(length * height);
+        this.items = new GuiItem[length * height];
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void display(@NotNull Inventory inventory, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
+    public void display(@NotNull FrameBuffer buffer, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
         int length = Math.min(this.length, maxLength);
         int height = Math.min(this.height, maxHeight);
 
-        items.stream().filter(entry -> {
-            GuiItem key = entry.getKey();
-            GuiLocation value = entry.getValue();
-
-            return key.isVisible() && value.getX() + paneOffsetX <= 9 && value.getY() + paneOffsetY <= 6;
-        }).forEach(entry -> {
-            GuiLocation location = entry.getValue();
-
-            int x = location.getX(), y = location.getY();
-
-            if (flipHorizontally)
-                x = length - x - 1;
+        GridTransform transform = GridTransform.of(length, height, rotation, flipHorizontally, flipVertically);
+        int corner = (start.getY() + paneOffsetY) * 9 + start.getX() + paneOffsetX;
 
-            if (flipVertically)
-                y = height - y - 1;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < length; x++) {
+                GuiItem item = items[y * this.length + x];
 
-            Map.Entry<Integer, Integer> coordinates = GeometryUtil.processClockwiseRotation(x, y, length, height,
-                rotation);
+                if (item == null || !item.isVisible())
+                    continue;
 
-            inventory.setItem((start.getY() + coordinates.getValue() + paneOffsetY) * 9 + (start.getX() + coordinates
-                    .getKey() + paneOffsetX), entry.getKey().getItem());
-        });
+                buffer.setItem(corner + transform.getOffset(y * length + x), item);
+            }
+        }
     }
 
     /**
-     * Adds a gui item at the specific spot in the pane
+     * Adds a gui item at the specific spot in the pane. If there already is an item on this spot, it will be replaced.
      *
      * @param item the item to set
      * @param location the location of the item
      */
     public void addItem(@NotNull GuiItem item, @NotNull GuiLocation location) {
-        items.add(new AbstractMap.SimpleEntry<>(item, location));
+        addItem(item, location.getX(), location.getY());
+    }
+
+    /**
+     * Adds a gui item at the specific spot in the pane. If there already is an item on this spot, it will be replaced.
+     * The spot has to lie inside the pane: items outside of it can't be shown, so they're ignored.
+     *
+     * @param item the item to set
+     * @param x the x coordinate of the item
+     * @param y the y coordinate of the item
+     */
+    public void addItem(@NotNull GuiItem item, int x, int y) {
+        assert x >= 0 && x < length && y >= 0 && y < height : "location outside pane";
+
+        //an unchecked position would end up in another row or outside the array
+        if (x < 0 || x >= length || y < 0 || y >= height)
+            return;
+
+        items[y * length + x] = item;
+    }
+
+    /**
+     * Removes the gui item at the specific spot in the pane, if there is one
+     *
+     * @param x the x coordinate of the item
+     * @param y the y coordinate of the item
+     */
+    public void removeItem(int x, int y) {
+        assert x >= 0 && x < length && y >= 0 && y < height : "location outside pane";
+
+        if (x < 0 || x >= length || y < 0 || y >= height)
+            return;
+
+        items[y * length + x] = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Items which no longer fit inside the pane are removed.
+     */
+    @Override
+    public void setLength(int length) {
+        resize(length, height);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Items which no longer fit inside the pane are removed.
+     */
+    @Override
+    public void setHeight(int height) {
+        resize(length, height);
+    }
+
+    /**
+     * Resizes this pane, while keeping all items at the same position
+     *
+     * @param length the new length
+     * @param height the new height
+     */
+    private void resize(int length, int height) {
+        GuiItem[] items = new GuiItem[length * height];
+
+        for (int y = 0; y < Math.min(height, this.height); y++)
+            System.arraycopy(this.items, y * this.length, items, y * length, Math.min(length, this.length));
+
+        this.items = items;
+
+        super.setLength(length);
+        super.setHeight(height);
     }
 
     /**
@@ -109,42 +172,31 @@ public class StaticPane extends Pane {
         int y = (slot / 9) - start.getY() - paneOffsetY;
 
         //this isn't our item
-        if (x < 0 || x > length || y < 0 || y > height)
+        if (x < 0 || x >= length || y < 0 || y >= height)
             return false;
 
-        //first we undo the rotation
-        //this is the same as applying a new rotation to match up to 360, so we'll be doing that
-        Map.Entry<Integer, Integer> coordinates = GeometryUtil.processCounterClockwiseRotation(x, y, length, height,
-                rotation);
-
-        int newX = coordinates.getKey(), newY = coordinates.getValue();
+        //undo the rotation and flips
+        int index = GridTransform.of(length, height, rotation, flipHorizontally, flipVertically).getIndex(x, y);
 
-        if (flipHorizontally)
-            newX = length - newX - 1;
-
-        if (flipVertically)
-            newY = height - newY - 1;
+        if (index < 0)
+            return false;
 
-        //find the item on the correct spot
-        for (Map.Entry<GuiItem, GuiLocation> entry : items) {
-            GuiLocation location = entry.getValue();
-            GuiItem item = entry.getKey();
+        int newX = index % length, newY = index / length;
 
-            if (location.getX() != newX || location.getY() != newY || !item.getItem().equals(event.getCurrentItem()))
-                continue;
+        GuiItem item = items[newY * this.length + newX];
 
-            if (!item.isVisible())
-                return false;
+        if (item == null || !item.peekItem().equals(event.getCurrentItem()) || !item.isVisible())
+            return false;
 
-            Consumer<InventoryClickEvent> action = item.getAction();
+        if (onLocalClick != null)
+            onLocalClick.accept(event);
 
-            if (action != null)
-                action.accept(event);
+        Consumer<InventoryClickEvent> action = item.getAction();
 
-            return true;
-        }
+        if (action != null)
+            action.accept(event);
 
-        return false;
+        return true;
     }
 
     /**
@@ -170,7 +222,7 @@ public class StaticPane extends Pane {
     @NotNull
     @Override
     public Collection<GuiItem> getItems() {
-        return items.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+        return Arrays.stream(items).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     /**
@@ -243,44 +295,8 @@ public class StaticPane extends Pane {
     @Contract("_, null -> fail")
     public static StaticPane load(Object instance, @NotNull Element element) {
         try {
-            StaticPane staticPane = new StaticPane(new GuiLocation(
-                Integer.parseInt(element.getAttribute("x")),
-                Integer.parseInt(element.getAttribute("y"))),
-                Integer.parseInt(element.getAttribute("length")),
-                Integer.parseInt(element.getAttribute("height"))
-            );
-
-            if (element.hasAttribute("rotation"))
-                staticPane.setRotation(Integer.parseInt(element.getAttribute("rotation")));
-
-            if (element.hasAttribute("flipHorizontally"))
-                staticPane.flipHorizontally(Boolean.parseBoolean(element.getAttribute("flipHorizontally")));
-
-            if (element.hasAttribute("flipVertically"))
-                staticPane.flipVertically(Boolean.parseBoolean(element.getAttribute("flipVertically")));
-
-            Pane.load(staticPane, instance, element);
-
-            if (element.hasAttribute("populate"))
-                return staticPane;
-
-            NodeList childNodes = element.getChildNodes();
-
-            for (int i = 0; i < childNodes.getLength(); i++) {
-                Node item = childNodes.item(i);
-
-                if (item.getNodeType() != Node.ELEMENT_NODE)
-                    continue;
-
-                Element child = (Element) item;
-
-                staticPane.addItem(Pane.loadItem(instance, child),
-                    new GuiLocation(Integer.parseInt(child.getAttribute("x")),
-                        Integer.parseInt(child.getAttribute("y"))));
-            }
-
-            return staticPane;
-        } catch (NumberFormatException e) {
+            return new StaticPaneTemplate(element).instantiate(instance);
+        } catch (XMLLoadException e) {
             e.printStackTrace();
         }
 
@@ -0,0 +1,440 @@
+package com.github.stefvanschie.inventoryframework.pane.util;
+
+import com.github.stefvanschie.inventoryframework.GuiItem;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A buffer panes render their items into. The buffer remembers which items were last pushed to the inventory, so that
+ * only slots that actually changed since the previous frame have to be updated in the inventory. For every slot the
+ * buffer also remembers the chain of panes the item was rendered by, so clicks can be routed to the right item and
+ * panes without having to go through the entire pane tree. Panes entered together with their display parameters also
+ * have their region remembered, so the frame can be partially redrawn by restricting rendering to the region of a
+ * single pane.
+ */
+public class FrameBuffer {
+
+    /**
+     * The items rendered in the current frame, by their slot
+     */
+    @NotNull
+    private final GuiItem[] items;
+
+    /**
+     * The chain of panes, from outermost to innermost, that rendered the item in the current frame, by their slot
+     */
+    @NotNull
+    private final Pane[][] chains;
+
+    /**
+     * The panes that are currently being rendered, from outermost to innermost
+     */
+    @NotNull
+    private Pane[] chain;
+
+    /**
+     * The native item stacks which were last pushed to the inventory, by their slot. Gui items never modify their
+     * native item stacks, so these don't have to be copied.
+     */
+    @NotNull
+    private final ItemStack[] shown;
+
+    /**
+     * The native item stacks of the frame being pushed, by their slot. This is filled on every flush, so a single array
+     * is reused for every frame.
+     */
+    @NotNull
+    private final ItemStack[] contents;
+
+    /**
+     * Whether the inventory is known to contain the item stacks that were last pushed to it
+     */
+    private boolean valid;
+
+    /**
+     * The parameters each pane was last displayed with, in the order offset x, offset y, max length and max height
+     */
+    @NotNull
+    private final Map<Pane, int[]> regions = new IdentityHashMap<>();
+
+    /**
+     * The slots each pane covered when it was last displayed, indexed by slot. Since panes may be moved or resized
+     * afterwards, these are recorded while rendering rather than derived from the pane later on.
+     */
+    @NotNull
+    private final Map<Pane, boolean[]> covered = new IdentityHashMap<>();
+
+    /**
+     * The slots rendering is currently restricted to, or null if it isn't restricted
+     */
+    @Nullable
+    private boolean[] clip;
+
+    /**
+     * The panes entered since rendering was restricted to the clip
+     */
+    @NotNull
+    private final Set<Pane> entered = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The chain for slots in which no item was rendered
+     */
+    private static final Pane[] EMPTY_CHAIN = new Pane[0];
+
+    /**
+     * Creates a new frame buffer with the given amount of slots. The inventory the buffer is flushed to is assumed to
+     * be empty.
+     *
+     * @param size the amount of slots
+     */
+    public FrameBuffer(int size) {
+        this.items = new GuiItem[size];
+        this.chains = new Pane[size][];
+        this.chain = EMPTY_CHAIN;
+        this.shown = new ItemStack[size];
+        this.contents = new ItemStack[size];
+        this.valid = true;
+    }
+
+    /**
+     * Sets the item in the given slot for the current frame
+     *
+     * @param slot the slot
+     * @param item the item
+     */
+    public void setItem(int slot, @NotNull GuiItem item) {
+        if (clip != null && !clip[slot])
+            return;
+
+        items[slot] = item;
+        chains[slot] = chain;
+
+        //items aren't necessarily rendered inside the region of their panes
+        for (Pane pane : chain) {
+            boolean[] slots = covered.get(pane);
+
+            if (slots != null)
+                slots[slot] = true;
+        }
+    }
+
+    /**
+     * Marks the start of rendering the given pane. Every item set from now on, until {@link #exitPane()} is called,
+     * will be routed through this pane when clicked. Panes containing other panes should call this for each child pane
+     * they display.
+     *
+     * @param pane the pane
+     */
+    public void enterPane(@NotNull Pane pane) {
+        if (clip != null)
+            entered.add(pane);
+
+        Pane[] chain = Arrays.copyOf(this.chain, this.chain.length + 1);
+        chain[chain.length - 1] = pane;
+
+        this.chain = chain;
+    }
+
+    /**
+     * Marks the start of rendering the given pane, like {@link #enterPane(Pane)}, and remembers the parameters the pane
+     * is displayed with, so the region of the pane can be redrawn on its own later. The parameters should be the same
+     * as the ones passed to {@link Pane#display(FrameBuffer, int, int, int, int)}.
+     *
+     * @param pane the pane
+     * @param paneOffsetX the x offset the pane is displayed at
+     * @param paneOffsetY the y offset the pane is displayed at
+     * @param maxLength the maximum length the pane is displayed with
+     * @param maxHeight the maximum height the pane is displayed with
+     */
+    public void enterPane(@NotNull Pane pane, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
+        int[] region = regions.computeIfAbsent(pane, key -> new int[4]);
+
+        region[0] = paneOffsetX;
+        region[1] = paneOffsetY;
+        region[2] = maxLength;
+        region[3] = maxHeight;
+
+        boolean[] slots = getRegion(pane, region);
+        boolean[] previous = covered.get(pane);
+
+        //slots outside the clip aren't rendered again, so they're still covered by what was rendered before
+        if (previous != null && clip != null) {
+            for (int slot = 0; slot < slots.length; slot++)
+                slots[slot] |= previous[slot] && !clip[slot];
+        }
+
+        covered.put(pane, slots);
+
+        enterPane(pane);
+    }
+
+    /**
+     * Marks the end of rendering the pane that was last entered
+     */
+    public void exitPane() {
+        assert chain.length > 0 : "no pane was entered";
+
+        chain = Arrays.copyOf(chain, chain.length - 1);
+    }
+
+    /**
+     * Returns the item in the given slot for the current frame
+     *
+     * @param slot the slot
+     * @return the item or null if no item was rendered in this slot
+     */
+    @Nullable
+    @Contract(pure = true)
+    public GuiItem getItem(int slot) {
+        return items[slot];
+    }
+
+    /**
+     * Returns the chain of panes, from outermost to innermost, that rendered the item in the given slot for the current
+     * frame. The returned array should not be modified.
+     *
+     * @param slot the slot
+     * @return the chain of panes or an empty array if no item was rendered in this slot
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Pane[] getPanes(int slot) {
+        Pane[] chain = chains[slot];
+
+        return chain == null ? EMPTY_CHAIN : chain;
+    }
+
+    /**
+     * Returns the amount of slots of this buffer
+     *
+     * @return the amount of slots
+     */
+    @Contract(pure = true)
+    public int getSize() {
+        return items.length;
+    }
+
+    /**
+     * Returns the slots that have to be redrawn to update the given pane: the slots it covered when it was last
+     * displayed, together with the slots it covers now if it has been moved or resized since
+     *
+     * @param pane the pane
+     * @return the slots, indexed by slot, or null if the region of the pane isn't known
+     */
+    @Nullable
+    @Contract(pure = true)
+    public boolean[] getSlots(@NotNull Pane pane) {
+        boolean[] covered = this.covered.get(pane);
+
+        if (covered == null)
+            return null;
+
+        boolean[] slots = getRegion(pane, regions.get(pane));
+
+        for (int slot = 0; slot < slots.length; slot++)
+            slots[slot] |= covered[slot];
+
+        return slots;
+    }
+
+    /**
+     * Returns the slots inside the rectangle of the given pane, based on its current position and size and the given
+     * display parameters
+     *
+     * @param pane the pane
+     * @param region the display parameters, in the order offset x, offset y, max length and max height
+     * @return the slots, indexed by slot
+     */
+    @NotNull
+    @Contract(pure = true)
+    private boolean[] getRegion(@NotNull Pane pane, @NotNull int[] region) {
+        int startX = region[0] + pane.getX(), startY = region[1] + pane.getY();
+        int length = Math.min(pane.getLength(), region[2]), height = Math.min(pane.getHeight(), region[3]);
+
+        boolean[] slots = new boolean[items.length];
+
+        for (int y = Math.max(startY, 0); y < startY + height && y < items.length / 9; y++) {
+            for (int x = Math.max(startX, 0); x < startX + length && x < 9; x++)
+                slots[y * 9 + x] = true;
+        }
+
+        return slots;
+    }
+
+    /**
+     * Returns whether the given pane covered any of the given slots when it was last displayed. Panes whose region
+     * isn't known are assumed to cover them.
+     *
+     * @param pane the pane
+     * @param slots the slots, indexed by slot
+     * @return true if the pane may cover the slots, false otherwise
+     */
+    @Contract(pure = true)
+    public boolean intersects(@NotNull Pane pane, @NotNull boolean[] slots) {
+        boolean[] paneSlots = getSlots(pane);
+
+        if (paneSlots == null)
+            return true;
+
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot] && paneSlots[slot])
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Clears the current frame, so a new frame can be rendered
+     */
+    public void clear() {
+        Arrays.fill(items, null);
+        Arrays.fill(chains, null);
+
+        regions.clear();
+        covered.clear();
+        entered.clear();
+        clip = null;
+    }
+
+    /**
+     * Clears the given slots of the current frame, so they can be rendered again. Until the next flush, items set
+     * outside these slots are ignored and only these slots are pushed to the inventory.
+     *
+     * @param slots the slots, indexed by slot
+     */
+    public void clear(@NotNull boolean[] slots) {
+        for (int slot = 0; slot < items.length; slot++) {
+            if (!slots[slot])
+                continue;
+
+            items[slot] = null;
+            chains[slot] = null;
+        }
+
+        clip = slots;
+    }
+
+    /**
+     * Forgets which items were last pushed to the inventory. The next flush will update every slot. This should be
+     * called whenever the contents of the inventory may have been changed by something other than this buffer.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Returns whether the inventory is known to contain the current frame, as far as it has been flushed. This is no
+     * longer the case once the inventory has been changed by something other than this buffer, until the next flush.
+     *
+     * @return true if the inventory is known to contain the frame, false otherwise
+     */
+    @Contract(pure = true)
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Pushes the current frame to a new, empty inventory, for example one replacing the inventory this buffer was
+     * flushed to before. Only slots holding an item are updated. The inventory is assumed to be the one flushed to from
+     * now on.
+     *
+     * @param inventory the inventory
+     */
+    public void fill(@NotNull Inventory inventory) {
+        Arrays.fill(shown, null);
+        valid = true;
+        unclip();
+
+        flush(inventory);
+    }
+
+    /**
+     * Pushes the current frame to the inventory. Only slots whose item stack differs from the one that was last pushed
+     * are updated. If only some slots were cleared, only those slots are considered.
+     *
+     * @param inventory the inventory
+     */
+    public void flush(@NotNull Inventory inventory) {
+        //an invalid inventory needs every slot
+        boolean[] slots = valid ? clip : null;
+
+        //slots that aren't pushed keep whatever they held after an earlier flush
+        for (int slot = 0; slot < items.length; slot++) {
+            if (slots == null || slots[slot])
+                contents[slot] = items[slot] == null ? null : items[slot].getNativeItem();
+        }
+
+        push(inventory, contents, shown, slots, !valid);
+
+        unclip();
+        valid = true;
+    }
+
+    /**
+     * Lifts the restriction of rendering to the clip. Panes which weren't entered while rendering inside the clip, like
+     * the panes of a page that's no longer shown, no longer cover the slots inside it. Panes left without any slots are
+     * forgotten, so they aren't kept alive by this buffer.
+     */
+    private void unclip() {
+        if (clip == null)
+            return;
+
+        for (Iterator<Map.Entry<Pane, boolean[]>> iterator = covered.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<Pane, boolean[]> entry = iterator.next();
+
+            if (entered.contains(entry.getKey()))
+                continue;
+
+            boolean[] slots = entry.getValue();
+            boolean empty = true;
+
+            for (int slot = 0; slot < slots.length; slot++) {
+                slots[slot] &= !clip[slot];
+                empty &= !slots[slot];
+            }
+
+            if (!empty)
+                continue;
+
+            iterator.remove();
+            regions.remove(entry.getKey());
+        }
+
+        entered.clear();
+        clip = null;
+    }
+
+    /**
+     * Pushes the given item stacks to an inventory, updating only the slots whose item stack differs from the one that
+     * was last pushed. Slots are updated one by one: on CraftBukkit {@link Inventory#setContents(ItemStack[])} updates
+     * every slot individually as well, including the slots that didn't change.
+     *
+     * @param inventory the inventory
+     * @param contents the item stacks to show, by their slot
+     * @param shown the item stacks that were last pushed, by their slot, which are replaced by the ones pushed now
+     * @param slots the slots to consider, indexed by slot, or null to consider all slots
+     * @param force whether every slot considered should be updated, regardless of what was last pushed
+     */
+    public static void push(@NotNull Inventory inventory, @NotNull ItemStack[] contents, @NotNull ItemStack[] shown,
+                            @Nullable boolean[] slots, boolean force) {
+        for (int slot = 0; slot < contents.length; slot++) {
+            if (slots != null && !slots[slot])
+                continue;
+
+            ItemStack item = contents[slot];
+
+            //an unchanged gui item hands out the same native item stack
+            if (!force && Objects.equals(item, shown[slot]))
+                continue;
+
+            inventory.setItem(slot, item);
+            shown[slot] = item;
+        }
+    }
+}
@@ -2,30 +2,18 @@ package com.github.stefvanschie.inventoryframework.pane.util;
 
 import com.github.stefvanschie.inventoryframework.GuiItem;
 import com.github.stefvanschie.inventoryframework.GuiLocation;
-import com.github.stefvanschie.inventoryframework.util.XMLUtil;
-import com.google.common.primitives.Primitives;
-import com.mojang.authlib.GameProfile;
-import com.mojang.authlib.properties.Property;
-import org.apache.commons.codec.binary.Base64;
-import org.bukkit.ChatColor;
-import org.bukkit.Material;
-import org.bukkit.enchantments.Enchantment;
-import org.bukkit.event.Cancellable;
+import com.github.stefvanschie.inventoryframework.RenderScheduler;
+import com.github.stefvanschie.inventoryframework.template.ItemTemplate;
+import com.github.stefvanschie.inventoryframework.template.PaneAttributes;
+import org.bukkit.Bukkit;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.inventory.meta.SkullMeta;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -177,15 +165,58 @@ public abstract class Pane {
     }
 
     /**
-     * Has to set all the items in the right spot inside the inventory
+     * Has to set all the items in the right spot inside the frame buffer. Every pane has to override either this method
+     * or {@link #display(Inventory, int, int, int, int)}. By default, panes which only override the latter are
+     * displayed in an empty inventory, whose items are then rendered into the frame buffer. Clicks on those items are
+     * handled by {@link #click(InventoryClickEvent, int, int, int, int)}.
+     *
+     * @param buffer the frame buffer that the items should be rendered in
+     * @param paneOffsetX the pane's offset on the x axis
+     * @param paneOffsetY the pane's offset on the y axis
+     * @param maxLength the maximum length of the pane
+     * @param maxHeight the maximum height of the pane
+     */
+    public void display(@NotNull FrameBuffer buffer, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight) {
+        Inventory inventory = Bukkit.createInventory(null, buffer.getSize());
+
+        display(inventory, paneOffsetX, paneOffsetY, maxLength, maxHeight);
+
+        Consumer<InventoryClickEvent> action = event -> click(event, paneOffsetX, paneOffsetY, maxLength, maxHeight);
+
+        for (int slot = 0; slot < buffer.getSize(); slot++) {
+            ItemStack item = inventory.getItem(slot);
+
+            if (item != null)
+                buffer.setItem(slot, new GuiItem(item, action));
+        }
+    }
+
+    /**
+     * Has to set all the items in the right spot inside the inventory. By default, the pane is rendered into a new
+     * frame buffer, whose items are then set in the inventory.
      *
      * @param inventory the inventory that the items should be displayed in
      * @param paneOffsetX the pane's offset on the x axis
      * @param paneOffsetY the pane's offset on the y axis
      * @param maxLength the maximum length of the pane
      * @param maxHeight the maximum height of the pane
+     * @deprecated panes are rendered into a frame buffer, so only the changed slots have to be pushed to the inventory;
+     * override {@link #display(FrameBuffer, int, int, int, int)} instead
      */
-    public abstract void display(Inventory inventory, int paneOffsetX, int paneOffsetY, int maxLength, int maxHeight);
+    @Deprecated
+    public void display(@NotNull Inventory inventory, int paneOffsetX, int paneOffsetY, int maxLength,
+                        int maxHeight) {
+        FrameBuffer buffer = new FrameBuffer(inventory.getSize());
+
+        display(buffer, paneOffsetX, paneOffsetY, maxLength, maxHeight);
+
+        for (int slot = 0; slot < buffer.getSize(); slot++) {
+            GuiItem item = buffer.getItem(slot);
+
+            if (item != null)
+                inventory.setItem(slot, item.peekItem());
+        }
+    }
 
     /**
      * Returns the pane's visibility state
@@ -207,7 +238,8 @@ public abstract class Pane {
     }
 
     /**
-     * Called whenever there is being clicked on this pane
+     * Called whenever there is being clicked on this pane. Once the click is known to hit this pane, the consumer set
+     * by {@link #setOnLocalClick(Consumer)} should be called, before the action of the clicked item.
      *
      * @param event the event that occurred while clicking on this item
      * @param paneOffsetX the pane's offset on the x axis
@@ -234,240 +266,22 @@ public abstract class Pane {
      * @param instance the instance
      * @param element the element
      * @return the gui item
+     * @throws com.github.stefvanschie.inventoryframework.exception.XMLLoadException when the element doesn't describe
+     *         a valid item
      */
     public static GuiItem loadItem(Object instance, Element element) {
-        String id = element.getAttribute("id");
-        ItemStack itemStack = new ItemStack(Material.matchMaterial(id.toUpperCase(Locale.getDefault())),
-                element.hasAttribute("amount") ? Integer.parseInt(element.getAttribute("amount")) : 1,
-                element.hasAttribute("damage") ? Short.parseShort(element.getAttribute("damage")) : 0);
-
-        List<Object> properties = new ArrayList<>();
-
-        if (element.hasChildNodes()) {
-            NodeList childNodes = element.getChildNodes();
-
-            for (int i = 0; i < childNodes.getLength(); i++) {
-                Node item = childNodes.item(i);
-
-                if (item.getNodeType() != Node.ELEMENT_NODE)
-                    continue;
-
-                Element elementItem = (Element) item;
-
-                String nodeName = item.getNodeName();
-
-                if (nodeName.equals("properties") || nodeName.equals("lore") || nodeName.equals("enchantments")) {
-                    Element innerElement = (Element) item;
-                    NodeList innerChildNodes = innerElement.getChildNodes();
-
-                    for (int j = 0; j < innerChildNodes.getLength(); j++) {
-                        Node innerNode = innerChildNodes.item(j);
-
-                        if (innerNode.getNodeType() != Node.ELEMENT_NODE)
-                            continue;
-
-                        Element innerElementChild = (Element) innerNode;
-                        ItemMeta itemMeta = itemStack.getItemMeta();
-
-                        switch (nodeName) {
-                            case "properties":
-                                if (!innerNode.getNodeName().equals("property"))
-                                    continue;
-
-                                String propertyType;
-
-                                if (!innerElementChild.hasAttribute("type"))
-                                    propertyType = "string";
-                                else
-                                    propertyType = innerElementChild.getAttribute("type");
-
-                                properties.add(PROPERTY_MAPPINGS.get(propertyType).apply(innerElementChild
-                                        .getTextContent()));
-                                break;
-                            case "lore":
-                                if (!innerNode.getNodeName().equals("line"))
-                                    continue;
-
-                                List<String> lore = itemMeta.hasLore() ? itemMeta.getLore() : new ArrayList<>();
-
-                                lore.add(ChatColor.translateAlternateColorCodes('&', innerNode
-                                        .getTextContent()));
-                                itemMeta.setLore(lore);
-                                itemStack.setItemMeta(itemMeta);
-                                break;
-                            case "enchantments":
-                                if (!innerNode.getNodeName().equals("enchantment"))
-                                    continue;
-
-                                itemMeta.addEnchant(Enchantment.getByName(
-                                        innerElementChild.getAttribute("id").toUpperCase(Locale.getDefault())
-                                ), Integer.parseInt(innerElementChild.getAttribute("level")), true);
-                                itemStack.setItemMeta(itemMeta);
-                                break;
-                        }
-                    }
-                } else if (nodeName.equals("displayname")) {
-                    ItemMeta itemMeta = itemStack.getItemMeta();
-
-                    itemMeta.setDisplayName(ChatColor.translateAlternateColorCodes('&', item
-                            .getTextContent()));
-
-                    itemStack.setItemMeta(itemMeta);
-                } else if (nodeName.equals("skull") && itemStack.getItemMeta() instanceof SkullMeta) {
-                    SkullMeta skullMeta = (SkullMeta) itemStack.getItemMeta();
-
-                    if (elementItem.hasAttribute("owner"))
-                        skullMeta.setOwner(elementItem.getAttribute("owner"));
-                    else if (elementItem.hasAttribute("id")) {
-                        GameProfile profile = new GameProfile(UUID.randomUUID(), null);
-                        byte[] encodedData = Base64.encodeBase64(String.format("{textures:{SKIN:{url:\"%s\"}}}",
-                                "http://textures.minecraft.net/texture/" + elementItem.getAttribute("id"))
-                                .getBytes());
-                        profile.getProperties().put("textures", new Property("textures", new String(encodedData)));
-
-                        try {
-                            Field profileField = skullMeta.getClass().getDeclaredField("profile");
-                            profileField.setAccessible(true);
-                            profileField.set(skullMeta, profile);
-                        } catch (NoSuchFieldException | SecurityException | IllegalAccessException e) {
-                            e.printStackTrace();
-                        }
-                    }
-
-                    itemStack.setItemMeta(skullMeta);
-                }
-            }
-        }
-
-        Consumer<InventoryClickEvent> action = null;
-
-        if (element.hasAttribute("onLocalClick")) {
-            for (Method method : instance.getClass().getMethods()) {
-                if (!method.getName().equals(element.getAttribute("onLocalClick")))
-                    continue;
-
-                int parameterCount = method.getParameterCount();
-                Class<?>[] parameterTypes = method.getParameterTypes();
-
-                if (parameterCount == 0)
-                    action = event -> {
-                        try {
-                            //because reflection with lambdas is stupid
-                            method.setAccessible(true);
-                            method.invoke(instance);
-                        } catch (IllegalAccessException | InvocationTargetException e) {
-                            e.printStackTrace();
-                        }
-                    };
-                else if (InventoryClickEvent.class.isAssignableFrom(parameterTypes[0]) ||
-                    Cancellable.class.isAssignableFrom(parameterTypes[0])) {
-                    if (parameterCount == 1)
-                        action = event -> {
-                            try {
-                                //because reflection with lambdas is stupid
-                                method.setAccessible(true);
-                                method.invoke(instance, event);
-                            } catch (IllegalAccessException | InvocationTargetException e) {
-                                e.printStackTrace();
-                            }
-                        };
-                    else if (parameterCount == properties.size() + 1) {
-                        boolean correct = true;
-
-                        for (int i = 0; i < properties.size(); i++) {
-                            Object attribute = properties.get(i);
-
-                            if (!(parameterTypes[1 + i].isPrimitive() &&
-                                    Primitives.unwrap(attribute.getClass()).isAssignableFrom(parameterTypes[1 + i])) &&
-                                    !attribute.getClass().isAssignableFrom(parameterTypes[1 + i]))
-                                correct = false;
-                        }
-
-                        if (correct) {
-                            action = event -> {
-                                try {
-                                    //don't ask me why we need to do this, just roll with it (actually I do know why, but it's stupid)
-                                    properties.add(0, event);
-
-                                    //because reflection with lambdas is stupid
-                                    method.setAccessible(true);
-                                    method.invoke(instance, properties.toArray(new Object[0]));
-
-                                    //since we'll append the event to the list next time again, we need to remove it here again
-                                    properties.remove(0);
-                                } catch (IllegalAccessException | InvocationTargetException e) {
-                                    e.printStackTrace();
-                                }
-                            };
-                        }
-                    }
-                }
-
-                break;
-            }
-        }
-
-        GuiItem item = action == null ? new GuiItem(itemStack) : new GuiItem(itemStack, action);
-
-        if (element.hasAttribute("field")) {
-            try {
-                Field field = instance.getClass().getField(element.getAttribute("field"));
-
-                field.setAccessible(true);
-                field.set(instance, item);
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                e.printStackTrace();
-            }
-        }
-
-        if (element.hasAttribute("populate")) {
-            try {
-                Method method = instance.getClass().getMethod("populate", GuiItem.class);
-
-                method.setAccessible(true);
-                method.invoke(instance, item);
-            } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                e.printStackTrace();
-            }
-        }
-
-        return item;
+        return new ItemTemplate(element).instantiate(instance);
     }
 
+    /**
+     * Loads the attributes every pane can have from an element and applies them to the given pane
+     *
+     * @param pane the pane
+     * @param instance the instance
+     * @param element the element
+     */
     public static void load(Pane pane, Object instance, Element element) {
-        if (element.hasAttribute("priority"))
-            pane.setPriority(Priority.valueOf(element.getAttribute("priority")));
-
-        if (element.hasAttribute("visible"))
-            pane.setVisible(Boolean.parseBoolean(element.getAttribute("visible")));
-
-        if (element.hasAttribute("field")) {
-            try {
-                Field field = instance.getClass().getField(element.getAttribute("field"));
-
-                field.setAccessible(true);
-                field.set(instance, pane);
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                e.printStackTrace();
-            }
-        }
-
-        if (element.hasAttribute("onLocalClick"))
-            pane.setOnLocalClick(XMLUtil.loadOnClickAttribute(instance, element));
-
-        if (element.hasAttribute("populate")) {
-            for (Method method: instance.getClass().getMethods()) {
-                if (!method.getName().equals(element.getAttribute("populate")))
-                    continue;
-
-                try {
-                    method.setAccessible(true);
-                    method.invoke(instance, pane);
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
+        new PaneAttributes(element).apply(pane, instance);
     }
 
     /**
@@ -498,6 +312,14 @@ public abstract class Pane {
     @Contract(pure = true)
     public abstract Collection<Pane> getPanes();
 
+    /**
+     * Marks this pane as changed, so every gui displaying it has the region of this pane updated at the start of the
+     * next tick. Changes made in the same tick are coalesced, so every gui is rendered at most once.
+     */
+    public void markDirty() {
+        RenderScheduler.markDirty(this);
+    }
+
     /**
      * Set the consumer that should be called whenever this gui is clicked in.
      *
@@ -507,6 +329,17 @@ public abstract class Pane {
         this.onLocalClick = onLocalClick;
     }
 
+    /**
+     * Returns the consumer that should be called whenever this pane is clicked in
+     *
+     * @return the consumer that gets called or null if there is none
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Consumer<InventoryClickEvent> getOnLocalClick() {
+        return onLocalClick;
+    }
+
     /**
      * Returns the property mappings used when loading properties from an XML file.
      *
@@ -0,0 +1,52 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.Gui;
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.util.Pane;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.w3c.dom.Element;
+
+/**
+ * A template for a pane registered with {@link Gui#registerPane}. Since these panes are loaded from their element, the
+ * element is kept and handed to the registered function every time the template is instantiated.
+ */
+class CustomPaneTemplate extends PaneTemplate {
+
+    /**
+     * The element of the pane
+     */
+    @NotNull
+    private final Element element;
+
+    /**
+     * Creates a new template for the given element
+     *
+     * @param element the element
+     */
+    CustomPaneTemplate(@NotNull Element element) {
+        this.element = element;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws XMLLoadException when the registered function couldn't load the pane
+     */
+    @NotNull
+    @Contract("null -> fail")
+    @Override
+    public Pane instantiate(@NotNull Object instance) {
+        Pane pane;
+
+        //the dom isn't safe to be read from multiple threads at the same time
+        synchronized (element) {
+            pane = Gui.loadPane(instance, element);
+        }
+
+        if (pane == null)
+            throw new XMLLoadException("pane '" + element.getNodeName() + "' couldn't be loaded");
+
+        return pane;
+    }
+}
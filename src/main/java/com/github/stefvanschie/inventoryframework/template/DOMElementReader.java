@@ -0,0 +1,104 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * An element reader for an element in an already parsed document
+ */
+class DOMElementReader implements ElementReader {
+
+    /**
+     * The element
+     */
+    @NotNull
+    private final Element element;
+
+    /**
+     * The child nodes of the element
+     */
+    @NotNull
+    private final NodeList childNodes;
+
+    /**
+     * The index of the next child node to visit
+     */
+    private int index;
+
+    /**
+     * Creates a new reader for the given element
+     *
+     * @param element the element
+     */
+    DOMElementReader(@NotNull Element element) {
+        this.element = element;
+        this.childNodes = element.getChildNodes();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Contract(pure = true)
+    @Override
+    public String getName() {
+        return element.getNodeName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Contract(pure = true)
+    @Override
+    public boolean hasAttribute(@NotNull String name) {
+        return element.hasAttribute(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Contract(pure = true)
+    @Override
+    public String getAttribute(@NotNull String name) {
+        return element.getAttribute(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public ElementReader nextChild() {
+        while (index < childNodes.getLength()) {
+            Node node = childNodes.item(index++);
+
+            if (node.getNodeType() == Node.ELEMENT_NODE)
+                return new DOMElementReader((Element) node);
+        }
+
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public String getText() {
+        return element.getTextContent();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public Element toElement() {
+        return element;
+    }
+}
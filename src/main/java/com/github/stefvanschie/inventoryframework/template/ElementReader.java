@@ -0,0 +1,70 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Element;
+
+/**
+ * A forward only view of an element in an XML file. Child elements are visited one at a time, which allows templates to
+ * be compiled while the file is being streamed without holding the entire document in memory.
+ */
+interface ElementReader {
+
+    /**
+     * Returns the name of this element
+     *
+     * @return the name
+     */
+    @NotNull
+    @Contract(pure = true)
+    String getName();
+
+    /**
+     * Returns whether this element has an attribute with the given name
+     *
+     * @param name the name of the attribute
+     * @return true if the attribute exists, false otherwise
+     */
+    @Contract(pure = true)
+    boolean hasAttribute(@NotNull String name);
+
+    /**
+     * Returns the value of the attribute with the given name
+     *
+     * @param name the name of the attribute
+     * @return the value or an empty string if the attribute doesn't exist
+     */
+    @NotNull
+    @Contract(pure = true)
+    String getAttribute(@NotNull String name);
+
+    /**
+     * Moves to the next child element of this element. Any child returned by a previous call can no longer be used
+     * afterwards.
+     *
+     * @return the next child element or null if there are no more child elements
+     * @throws XMLLoadException when the underlying file couldn't be read
+     */
+    @Nullable
+    ElementReader nextChild();
+
+    /**
+     * Returns the text content of this element. This can only be called before any child has been visited.
+     *
+     * @return the text content
+     * @throws XMLLoadException when the underlying file couldn't be read
+     */
+    @NotNull
+    String getText();
+
+    /**
+     * Returns this element as a DOM element. This can only be called before any child has been visited.
+     *
+     * @return the element
+     * @throws XMLLoadException when the underlying file couldn't be read
+     */
+    @NotNull
+    Element toElement();
+}
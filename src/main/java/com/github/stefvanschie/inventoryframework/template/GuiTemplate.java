@@ -0,0 +1,261 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.Gui;
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.util.Pane;
+import com.github.stefvanschie.inventoryframework.util.SchedulerUtil;
+import com.github.stefvanschie.inventoryframework.util.XMLUtil;
+import org.bukkit.ChatColor;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A compiled gui from an XML file. Compiling parses the file, builds all item stacks and resolves all materials and
+ * enchantments once. The resulting template is immutable, so it can be cached and instantiated into a new gui any
+ * amount of times, which is considerably cheaper than loading the file again.
+ */
+public class GuiTemplate {
+
+    /**
+     * The amount of rows of the gui
+     */
+    private final int rows;
+
+    /**
+     * The title of the gui, with its color codes already translated
+     */
+    @NotNull
+    private final String title;
+
+    /**
+     * The name of the field the gui is assigned to, or null if there is none
+     */
+    @Nullable
+    private final String field;
+
+    /**
+     * The names of the methods called on click and on close, or null if there are none
+     */
+    @Nullable
+    private final String onLocalClick, onGlobalClick, onClose;
+
+    /**
+     * Whether the gui should be passed to the populate method
+     */
+    private final boolean populate;
+
+    /**
+     * The panes of the gui
+     */
+    @NotNull
+    private final List<PaneTemplate> panes;
+
+    /**
+     * The factory for the stream readers used for compiling
+     */
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    /**
+     * Compiles a gui from the given element
+     *
+     * @param element the document element
+     * @throws XMLLoadException when the element doesn't describe a valid gui
+     */
+    private GuiTemplate(@NotNull ElementReader element) {
+        try {
+            this.rows = Integer.parseInt(element.getAttribute("rows"));
+        } catch (NumberFormatException e) {
+            throw new XMLLoadException(e);
+        }
+
+        this.title = ChatColor.translateAlternateColorCodes('&', element.getAttribute("title"));
+        this.field = element.hasAttribute("field") ? element.getAttribute("field") : null;
+        this.onLocalClick = element.hasAttribute("onLocalClick") ? element.getAttribute("onLocalClick") : null;
+        this.onGlobalClick = element.hasAttribute("onGlobalClick") ? element.getAttribute("onGlobalClick") : null;
+        this.onClose = element.hasAttribute("onClose") ? element.getAttribute("onClose") : null;
+        this.populate = element.hasAttribute("populate");
+
+        List<PaneTemplate> panes = new ArrayList<>();
+
+        if (!populate) {
+            for (ElementReader pane = element.nextChild(); pane != null; pane = element.nextChild())
+                panes.add(PaneTemplate.compile(pane));
+        }
+
+        this.panes = Collections.unmodifiableList(panes);
+    }
+
+    /**
+     * Creates a new gui from this template
+     *
+     * @param plugin the main plugin
+     * @param instance the class instance for all reflection lookups
+     * @return the gui
+     */
+    @NotNull
+    @Contract("_, null -> fail")
+    public Gui instantiate(@NotNull Plugin plugin, @NotNull Object instance) {
+        Gui gui = new Gui(plugin, rows, title);
+
+        if (field != null)
+            XMLUtil.setField(instance, field, gui);
+
+        return new Bindings(instance).apply(gui);
+    }
+
+    /**
+     * Creates a new gui from this template asynchronously. The panes and items are created and all methods are
+     * resolved on a worker thread, only the gui itself is created on the main thread. This means that the fields of
+     * panes and items are set and their populate methods are called from the worker thread, while the field of the gui
+     * is set and its populate method is called on the main thread.
+     *
+     * @param plugin the main plugin
+     * @param instance the class instance for all reflection lookups
+     * @return a future which is completed with the gui on the main thread
+     */
+    @NotNull
+    @Contract("_, null -> fail")
+    public CompletableFuture<Gui> instantiateAsync(@NotNull Plugin plugin, @NotNull Object instance) {
+        return CompletableFuture.supplyAsync(() -> new Bindings(instance), SchedulerUtil.getAsyncExecutor(plugin))
+            .thenApplyAsync(bindings -> {
+                Gui gui = new Gui(plugin, rows, title);
+
+                if (field != null)
+                    XMLUtil.setField(instance, field, gui);
+
+                return bindings.apply(gui);
+            }, SchedulerUtil.getMainThreadExecutor(plugin));
+    }
+
+    /**
+     * Compiles a gui template from the given input stream. The file is streamed, panes and items are compiled as they
+     * are read, so the document as a whole is never held in memory.
+     *
+     * @param inputStream the input stream
+     * @return the gui template
+     * @throws XMLLoadException when the input stream couldn't be read or doesn't describe a valid gui
+     */
+    @NotNull
+    @Contract("null -> fail")
+    public static GuiTemplate compile(@NotNull InputStream inputStream) {
+        try {
+            XMLStreamReader reader;
+
+            //input factories aren't guaranteed to be thread safe
+            synchronized (INPUT_FACTORY) {
+                reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+            }
+
+            try {
+                reader.nextTag();
+
+                return new GuiTemplate(new StAXElementReader(reader));
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new XMLLoadException(e);
+        }
+    }
+
+    /**
+     * The methods and panes of a gui created from this template, which don't depend on the gui itself and can thus be
+     * created before it is
+     */
+    private final class Bindings {
+
+        /**
+         * The class instance for all reflection lookups
+         */
+        @NotNull
+        private final Object instance;
+
+        /**
+         * The consumers called on click, or null if there are none
+         */
+        @Nullable
+        private final Consumer<InventoryClickEvent> onLocalClick, onGlobalClick;
+
+        /**
+         * The consumer called on close, or null if there is none
+         */
+        @Nullable
+        private final Consumer<InventoryCloseEvent> onClose;
+
+        /**
+         * The panes of the gui
+         */
+        @NotNull
+        private final List<Pane> panes;
+
+        /**
+         * Resolves all methods and creates all panes for the given instance
+         *
+         * @param instance the class instance for all reflection lookups
+         */
+        private Bindings(@NotNull Object instance) {
+            String onLocalClick = GuiTemplate.this.onLocalClick;
+            String onGlobalClick = GuiTemplate.this.onGlobalClick;
+            String onClose = GuiTemplate.this.onClose;
+
+            this.instance = instance;
+            this.onLocalClick = onLocalClick == null ? null :
+                XMLUtil.loadEventConsumer(instance, onLocalClick, InventoryClickEvent.class);
+            this.onGlobalClick = onGlobalClick == null ? null :
+                XMLUtil.loadEventConsumer(instance, onGlobalClick, InventoryClickEvent.class);
+            this.onClose = onClose == null ? null :
+                XMLUtil.loadEventConsumer(instance, onClose, InventoryCloseEvent.class);
+            this.panes = new ArrayList<>(GuiTemplate.this.panes.size());
+
+            for (PaneTemplate pane : GuiTemplate.this.panes)
+                panes.add(pane.instantiate(instance));
+        }
+
+        /**
+         * Applies these bindings to the given gui
+         *
+         * @param gui the gui
+         * @return the gui
+         */
+        @NotNull
+        @Contract("_ -> param1")
+        private Gui apply(@NotNull Gui gui) {
+            if (onLocalClick != null)
+                gui.setOnLocalClick(onLocalClick);
+
+            if (onGlobalClick != null)
+                gui.setOnGlobalClick(onGlobalClick);
+
+            if (onClose != null)
+                gui.setOnClose(onClose);
+
+            if (populate) {
+                XMLUtil.invokeMethod(instance, "populate", gui);
+
+                return gui;
+            }
+
+            panes.forEach(gui::addPane);
+
+            return gui;
+        }
+    }
+
+    static {
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+}
@@ -0,0 +1,296 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.GuiItem;
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.util.Pane;
+import com.github.stefvanschie.inventoryframework.util.ClassMetadata;
+import com.github.stefvanschie.inventoryframework.util.XMLUtil;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.primitives.Primitives;
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
+import org.apache.commons.codec.binary.Base64;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Element;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A compiled item from an XML file. The item stack is built once when compiling and interned, so identical items of all
+ * templates share a single item stack. Every instantiated gui item shares this item stack until it's requested through
+ * {@link GuiItem#getItem()}, at which point the gui item receives its own copy of it.
+ */
+public class ItemTemplate {
+
+    /**
+     * The item stack every instantiated item shares
+     */
+    @NotNull
+    private final ItemStack prototype;
+
+    /**
+     * The properties passed to the click method after the event
+     */
+    @NotNull
+    private final List<Object> properties;
+
+    /**
+     * The name of the method called on click, or null if there is none
+     */
+    @Nullable
+    private final String onLocalClick;
+
+    /**
+     * The click methods taking the properties, with the properties already inserted, by method. These take the
+     * instance and the event, all typed as objects.
+     */
+    @NotNull
+    private final Map<Method, MethodHandle> actions = new ConcurrentHashMap<>();
+
+    /**
+     * The name of the field the item is assigned to, or null if there is none
+     */
+    @Nullable
+    private final String field;
+
+    /**
+     * Whether the item should be passed to the populate method
+     */
+    private final boolean populate;
+
+    /**
+     * The interner for the item stacks of all templates. Item stacks are only kept as long as a template uses them.
+     */
+    private static final Interner<ItemStack> ITEM_STACKS = Interners.newWeakInterner();
+
+    /**
+     * Compiles an item from the given element
+     *
+     * @param element the element
+     * @throws XMLLoadException when the element doesn't describe a valid item
+     */
+    public ItemTemplate(@NotNull Element element) {
+        this(new DOMElementReader(element));
+    }
+
+    /**
+     * Compiles an item from the given element
+     *
+     * @param element the element
+     * @throws XMLLoadException when the element doesn't describe a valid item
+     */
+    ItemTemplate(@NotNull ElementReader element) {
+        //attributes have to be read before the children
+        this.onLocalClick = element.hasAttribute("onLocalClick") ? element.getAttribute("onLocalClick") : null;
+        this.field = element.hasAttribute("field") ? element.getAttribute("field") : null;
+        this.populate = element.hasAttribute("populate");
+
+        try {
+            String id = element.getAttribute("id");
+            Material material = Material.matchMaterial(id.toUpperCase(Locale.getDefault()));
+
+            if (material == null)
+                throw new XMLLoadException("unknown material '" + id + "'");
+
+            ItemStack prototype = new ItemStack(material,
+                    element.hasAttribute("amount") ? Integer.parseInt(element.getAttribute("amount")) : 1,
+                    element.hasAttribute("damage") ? Short.parseShort(element.getAttribute("damage")) : 0);
+
+            List<Object> properties = new ArrayList<>();
+
+            for (ElementReader item = element.nextChild(); item != null; item = element.nextChild()) {
+                String nodeName = item.getName();
+
+                if (nodeName.equals("properties") || nodeName.equals("lore") || nodeName.equals("enchantments")) {
+                    for (ElementReader innerElementChild = item.nextChild(); innerElementChild != null;
+                         innerElementChild = item.nextChild()) {
+                        ItemMeta itemMeta = prototype.getItemMeta();
+
+                        switch (nodeName) {
+                            case "properties":
+                                if (!innerElementChild.getName().equals("property"))
+                                    continue;
+
+                                String propertyType = innerElementChild.hasAttribute("type") ?
+                                        innerElementChild.getAttribute("type") : "string";
+                                Function<String, Object> mapping = Pane.getPropertyMappings().get(propertyType);
+
+                                if (mapping == null)
+                                    throw new XMLLoadException("unknown property type '" + propertyType + "'");
+
+                                properties.add(mapping.apply(innerElementChild.getText()));
+                                break;
+                            case "lore":
+                                if (!innerElementChild.getName().equals("line"))
+                                    continue;
+
+                                List<String> lore = itemMeta.hasLore() ? itemMeta.getLore() : new ArrayList<>();
+
+                                lore.add(ChatColor.translateAlternateColorCodes('&', innerElementChild.getText()));
+                                itemMeta.setLore(lore);
+                                prototype.setItemMeta(itemMeta);
+                                break;
+                            case "enchantments":
+                                if (!innerElementChild.getName().equals("enchantment"))
+                                    continue;
+
+                                itemMeta.addEnchant(Enchantment.getByName(
+                                        innerElementChild.getAttribute("id").toUpperCase(Locale.getDefault())
+                                ), Integer.parseInt(innerElementChild.getAttribute("level")), true);
+                                prototype.setItemMeta(itemMeta);
+                                break;
+                        }
+                    }
+                } else if (nodeName.equals("displayname")) {
+                    ItemMeta itemMeta = prototype.getItemMeta();
+
+                    itemMeta.setDisplayName(ChatColor.translateAlternateColorCodes('&', item.getText()));
+
+                    prototype.setItemMeta(itemMeta);
+                } else if (nodeName.equals("skull") && prototype.getItemMeta() instanceof SkullMeta) {
+                    SkullMeta skullMeta = (SkullMeta) prototype.getItemMeta();
+
+                    if (item.hasAttribute("owner"))
+                        skullMeta.setOwner(item.getAttribute("owner"));
+                    else if (item.hasAttribute("id"))
+                        setSkullTexture(skullMeta, item.getAttribute("id"));
+
+                    prototype.setItemMeta(skullMeta);
+                }
+            }
+
+            this.prototype = ITEM_STACKS.intern(prototype);
+            this.properties = Collections.unmodifiableList(properties);
+        } catch (NumberFormatException e) {
+            throw new XMLLoadException(e);
+        }
+    }
+
+    /**
+     * Creates a new gui item from this template
+     *
+     * @param instance the instance for all reflection lookups
+     * @return the gui item
+     */
+    @NotNull
+    @Contract("null -> fail")
+    public GuiItem instantiate(@NotNull Object instance) {
+        Consumer<InventoryClickEvent> action = onLocalClick == null ? null : loadAction(instance, onLocalClick);
+
+        GuiItem item = GuiItem.shared(prototype, action);
+
+        if (field != null)
+            XMLUtil.setField(instance, field, item);
+
+        if (populate)
+            XMLUtil.invokeMethod(instance, "populate", item);
+
+        return item;
+    }
+
+    /**
+     * Loads the action for an item. The first method with the given name is used that either takes no parameters,
+     * takes only the event, or takes the event followed by all properties of this item.
+     *
+     * @param instance the instance
+     * @param methodName the name of the method
+     * @return the action or null if no suitable method exists
+     */
+    @Nullable
+    @Contract(pure = true)
+    private Consumer<InventoryClickEvent> loadAction(@NotNull Object instance, @NotNull String methodName) {
+        Consumer<InventoryClickEvent> action = XMLUtil.loadEventConsumer(instance, methodName,
+                InventoryClickEvent.class);
+
+        if (action != null || properties.isEmpty())
+            return action;
+
+        for (Method method : ClassMetadata.of(instance.getClass()).getMethods(methodName, properties.size() + 1)) {
+            if (!acceptsProperties(method))
+                continue;
+
+            MethodHandle handle = actions.computeIfAbsent(method, key -> {
+                MethodHandle eventHandler = ClassMetadata.of(instance.getClass()).getEventHandler(key);
+
+                //the properties are immutable, so they're inserted once and every click only passes the event
+                return eventHandler == null ? null :
+                    MethodHandles.insertArguments(eventHandler, 2, properties.toArray());
+            });
+
+            if (handle == null)
+                return null;
+
+            MethodHandle bound = handle.bindTo(instance);
+
+            return event -> {
+                try {
+                    bound.invokeExact((Object) event);
+                } catch (Throwable throwable) {
+                    throwable.printStackTrace();
+                }
+            };
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks whether the given method can be called with the event, followed by all properties of this item. The
+     * method has to take exactly one parameter more than there are properties.
+     *
+     * @param method the method
+     * @return true if the method accepts the event and properties, false otherwise
+     */
+    @Contract(pure = true)
+    private boolean acceptsProperties(@NotNull Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+
+        if (!parameterTypes[0].isAssignableFrom(InventoryClickEvent.class))
+            return false;
+
+        for (int i = 0; i < properties.size(); i++) {
+            if (!Primitives.wrap(parameterTypes[i + 1]).isInstance(properties.get(i)))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Sets the texture of a skull to the texture with the given id
+     *
+     * @param skullMeta the skull meta
+     * @param id the id of the texture
+     */
+    private static void setSkullTexture(@NotNull SkullMeta skullMeta, @NotNull String id) {
+        GameProfile profile = new GameProfile(UUID.randomUUID(), null);
+        byte[] encodedData = Base64.encodeBase64(String.format("{textures:{SKIN:{url:\"%s\"}}}",
+                "http://textures.minecraft.net/texture/" + id).getBytes());
+        profile.getProperties().put("textures", new Property("textures", new String(encodedData)));
+
+        try {
+            Field profileField = skullMeta.getClass().getDeclaredField("profile");
+            profileField.setAccessible(true);
+            profileField.set(skullMeta, profile);
+        } catch (NoSuchFieldException | SecurityException | IllegalAccessException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.GuiItem;
+import com.github.stefvanschie.inventoryframework.GuiLocation;
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.OutlinePane;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A compiled outline pane
+ */
+public class OutlinePaneTemplate extends PaneTemplate {
+
+    /**
+     * The position and size of the pane
+     */
+    private final int x, y, length, height;
+
+    /**
+     * The rotation, or null if it wasn't specified
+     */
+    @Nullable
+    private final Integer rotation;
+
+    /**
+     * The orientation, or null if it wasn't specified
+     */
+    @Nullable
+    private final OutlinePane.Orientation orientation;
+
+    /**
+     * The gap, or null if it wasn't specified
+     */
+    @Nullable
+    private final Integer gap;
+
+    /**
+     * Whether the pane repeats, or null if it wasn't specified
+     */
+    @Nullable
+    private final Boolean repeat;
+
+    /**
+     * Whether the pane is flipped horizontally and vertically, or null if it wasn't specified
+     */
+    @Nullable
+    private final Boolean flipHorizontally, flipVertically;
+
+    /**
+     * The attributes every pane has
+     */
+    @NotNull
+    private final PaneAttributes attributes;
+
+    /**
+     * The items of the pane, in order, with null representing an empty spot
+     */
+    @NotNull
+    private final List<ItemTemplate> items;
+
+    /**
+     * The item stack shared by all empty spots
+     */
+    @NotNull
+    private static final ItemStack EMPTY = new ItemStack(Material.AIR);
+
+    /**
+     * Compiles an outline pane from the given element
+     *
+     * @param element the element
+     * @throws XMLLoadException when the element doesn't describe a valid outline pane
+     */
+    public OutlinePaneTemplate(@NotNull Element element) {
+        this(new DOMElementReader(element));
+    }
+
+    /**
+     * Compiles an outline pane from the given element
+     *
+     * @param element the element
+     * @throws XMLLoadException when the element doesn't describe a valid outline pane
+     */
+    OutlinePaneTemplate(@NotNull ElementReader element) {
+        try {
+            this.x = Integer.parseInt(element.getAttribute("x"));
+            this.y = Integer.parseInt(element.getAttribute("y"));
+            this.length = Integer.parseInt(element.getAttribute("length"));
+            this.height = Integer.parseInt(element.getAttribute("height"));
+
+            this.rotation = element.hasAttribute("rotation") ? Integer.parseInt(element.getAttribute("rotation")) :
+                null;
+            this.orientation = element.hasAttribute("orientation") ? OutlinePane.Orientation.valueOf(element
+                .getAttribute("orientation").toUpperCase(Locale.getDefault())) : null;
+            this.gap = element.hasAttribute("gap") ? Integer.parseInt(element.getAttribute("gap")) : null;
+        } catch (NumberFormatException e) {
+            throw new XMLLoadException(e);
+        }
+
+        this.repeat = element.hasAttribute("repeat") ? Boolean.parseBoolean(element.getAttribute("repeat")) : null;
+        this.flipHorizontally = element.hasAttribute("flipHorizontally") ?
+            Boolean.parseBoolean(element.getAttribute("flipHorizontally")) : null;
+        this.flipVertically = element.hasAttribute("flipVertically") ?
+            Boolean.parseBoolean(element.getAttribute("flipVertically")) : null;
+
+        this.attributes = new PaneAttributes(element);
+
+        List<ItemTemplate> items = new ArrayList<>();
+
+        if (!attributes.isPopulated()) {
+            for (ElementReader item = element.nextChild(); item != null; item = element.nextChild())
+                items.add(item.getName().equals("empty") ? null : new ItemTemplate(item));
+        }
+
+        this.items = Collections.unmodifiableList(items);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Contract("null -> fail")
+    @Override
+    public OutlinePane instantiate(@NotNull Object instance) {
+        OutlinePane outlinePane = new OutlinePane(new GuiLocation(x, y), length, height);
+
+        if (rotation != null)
+            outlinePane.setRotation(rotation);
+
+        if (orientation != null)
+            outlinePane.setOrientation(orientation);
+
+        if (gap != null)
+            outlinePane.setGap(gap);
+
+        if (repeat != null)
+            outlinePane.setRepeat(repeat);
+
+        if (flipHorizontally != null)
+            outlinePane.flipHorizontally(flipHorizontally);
+
+        if (flipVertically != null)
+            outlinePane.flipVertically(flipVertically);
+
+        attributes.apply(outlinePane, instance);
+
+        for (ItemTemplate item : items)
+            outlinePane.addItem(item == null ? GuiItem.shared(EMPTY, null) : item.instantiate(instance));
+
+        return outlinePane;
+    }
+}
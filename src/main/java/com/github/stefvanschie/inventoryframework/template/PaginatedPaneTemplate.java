@@ -0,0 +1,105 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.GuiLocation;
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.PaginatedPane;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A compiled paginated pane
+ */
+public class PaginatedPaneTemplate extends PaneTemplate {
+
+    /**
+     * The position and size of the pane
+     */
+    private final int x, y, length, height;
+
+    /**
+     * The attributes every pane has
+     */
+    @NotNull
+    private final PaneAttributes attributes;
+
+    /**
+     * The panes of each page
+     */
+    @NotNull
+    private final List<List<PaneTemplate>> pages;
+
+    /**
+     * Compiles a paginated pane from the given element
+     *
+     * @param element the element
+     * @throws XMLLoadException when the element doesn't describe a valid paginated pane
+     */
+    public PaginatedPaneTemplate(@NotNull Element element) {
+        this(new DOMElementReader(element));
+    }
+
+    /**
+     * Compiles a paginated pane from the given element
+     *
+     * @param element the element
+     * @throws XMLLoadException when the element doesn't describe a valid paginated pane
+     */
+    PaginatedPaneTemplate(@NotNull ElementReader element) {
+        try {
+            this.x = Integer.parseInt(element.getAttribute("x"));
+            this.y = Integer.parseInt(element.getAttribute("y"));
+            this.length = Integer.parseInt(element.getAttribute("length"));
+            this.height = Integer.parseInt(element.getAttribute("height"));
+        } catch (NumberFormatException e) {
+            throw new XMLLoadException(e);
+        }
+
+        this.attributes = new PaneAttributes(element);
+
+        List<List<PaneTemplate>> pages = new ArrayList<>();
+
+        if (!attributes.isPopulated()) {
+            for (ElementReader page = element.nextChild(); page != null; page = element.nextChild()) {
+                List<PaneTemplate> panes = new ArrayList<>();
+
+                for (ElementReader pane = page.nextChild(); pane != null; pane = page.nextChild())
+                    panes.add(PaneTemplate.compile(pane));
+
+                pages.add(Collections.unmodifiableList(panes));
+            }
+        }
+
+        this.pages = Collections.unmodifiableList(pages);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Contract("null -> fail")
+    @Override
+    public PaginatedPane instantiate(@NotNull Object instance) {
+        PaginatedPane paginatedPane = new PaginatedPane(new GuiLocation(x, y), length, height);
+
+        attributes.apply(paginatedPane, instance);
+
+        //other pages are only instantiated once they're shown
+        if (!pages.isEmpty()) {
+            paginatedPane.setPageFactory(pages.size(), page -> pages.get(page).stream()
+                .map(pane -> pane.instantiate(instance))
+                .collect(Collectors.toList()));
+
+            //the current page is shown right away, so it's built here, which is on a worker thread when the gui is
+            //loaded asynchronously
+            paginatedPane.setPage(paginatedPane.getPage());
+        }
+
+        return paginatedPane;
+    }
+}
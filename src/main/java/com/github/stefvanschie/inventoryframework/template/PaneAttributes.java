@@ -0,0 +1,101 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.pane.util.Pane;
+import com.github.stefvanschie.inventoryframework.util.XMLUtil;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Element;
+
+/**
+ * The compiled attributes every pane in an XML file can have
+ */
+public final class PaneAttributes {
+
+    /**
+     * The priority of the pane, or null if it wasn't specified
+     */
+    @Nullable
+    private final Pane.Priority priority;
+
+    /**
+     * The visibility of the pane, or null if it wasn't specified
+     */
+    @Nullable
+    private final Boolean visible;
+
+    /**
+     * The name of the field the pane is assigned to, or null if there is none
+     */
+    @Nullable
+    private final String field;
+
+    /**
+     * The name of the method called on click, or null if there is none
+     */
+    @Nullable
+    private final String onLocalClick;
+
+    /**
+     * The name of the method the pane is passed to for populating it, or null if there is none
+     */
+    @Nullable
+    private final String populate;
+
+    /**
+     * Compiles the attributes of the given element
+     *
+     * @param element the element
+     */
+    public PaneAttributes(@NotNull Element element) {
+        this(new DOMElementReader(element));
+    }
+
+    /**
+     * Compiles the attributes of the given element
+     *
+     * @param element the element
+     */
+    PaneAttributes(@NotNull ElementReader element) {
+        this.priority = element.hasAttribute("priority") ? Pane.Priority.valueOf(element.getAttribute("priority")) :
+            null;
+        this.visible = element.hasAttribute("visible") ? Boolean.parseBoolean(element.getAttribute("visible")) : null;
+        this.field = element.hasAttribute("field") ? element.getAttribute("field") : null;
+        this.onLocalClick = element.hasAttribute("onLocalClick") ? element.getAttribute("onLocalClick") : null;
+        this.populate = element.hasAttribute("populate") ? element.getAttribute("populate") : null;
+    }
+
+    /**
+     * Applies these attributes to the given pane
+     *
+     * @param pane the pane
+     * @param instance the instance for all reflection lookups
+     */
+    public void apply(@NotNull Pane pane, @NotNull Object instance) {
+        if (priority != null)
+            pane.setPriority(priority);
+
+        if (visible != null)
+            pane.setVisible(visible);
+
+        if (field != null)
+            XMLUtil.setField(instance, field, pane);
+
+        if (onLocalClick != null)
+            pane.setOnLocalClick(XMLUtil.loadEventConsumer(instance, onLocalClick, InventoryClickEvent.class));
+
+        if (populate != null)
+            XMLUtil.invokeMethod(instance, populate, pane);
+    }
+
+    /**
+     * Returns whether the pane is populated by a method, in which case its contents in the XML file are ignored
+     *
+     * @return true if the pane is populated by a method, false otherwise
+     */
+    @Contract(pure = true)
+    public boolean isPopulated() {
+        return populate != null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.util.Pane;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.w3c.dom.Element;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A compiled pane from an XML file, which can be instantiated any amount of times
+ */
+public abstract class PaneTemplate {
+
+    /**
+     * The compilers for the panes that are part of this library, by their name in XML files
+     */
+    private static final Map<String, Function<ElementReader, PaneTemplate>> COMPILERS = new HashMap<>();
+
+    /**
+     * Creates a new pane from this template
+     *
+     * @param instance the instance for all reflection lookups
+     * @return the pane
+     */
+    @NotNull
+    @Contract("null -> fail")
+    public abstract Pane instantiate(@NotNull Object instance);
+
+    /**
+     * Compiles a pane from the given element. Panes registered with
+     * {@link com.github.stefvanschie.inventoryframework.Gui#registerPane} are loaded by their registered function each
+     * time the template is instantiated.
+     *
+     * @param element the element
+     * @return the pane template
+     * @throws XMLLoadException when the element doesn't describe a valid pane
+     */
+    @NotNull
+    @Contract("null -> fail")
+    public static PaneTemplate compile(@NotNull Element element) {
+        return compile(new DOMElementReader(element));
+    }
+
+    /**
+     * Compiles a pane from the given element. Panes registered with
+     * {@link com.github.stefvanschie.inventoryframework.Gui#registerPane} are converted to a DOM element, which is
+     * loaded by their registered function each time the template is instantiated.
+     *
+     * @param element the element
+     * @return the pane template
+     * @throws XMLLoadException when the element doesn't describe a valid pane
+     */
+    @NotNull
+    @Contract("null -> fail")
+    static PaneTemplate compile(@NotNull ElementReader element) {
+        Function<ElementReader, PaneTemplate> compiler = COMPILERS.get(element.getName());
+
+        if (compiler == null)
+            return new CustomPaneTemplate(element.toElement());
+
+        return compiler.apply(element);
+    }
+
+    static {
+        COMPILERS.put("outlinepane", OutlinePaneTemplate::new);
+        COMPILERS.put("paginatedpane", PaginatedPaneTemplate::new);
+        COMPILERS.put("staticpane", StaticPaneTemplate::new);
+    }
+}
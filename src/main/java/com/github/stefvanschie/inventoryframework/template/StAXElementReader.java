@@ -0,0 +1,296 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An element reader for an element of an XML file that is being streamed. Only the attributes of the element are kept
+ * in memory, its children are read from the stream as they are visited.
+ */
+class StAXElementReader implements ElementReader {
+
+    /**
+     * The stream reader, positioned somewhere inside this element
+     */
+    @NotNull
+    private final XMLStreamReader reader;
+
+    /**
+     * The name of this element
+     */
+    @NotNull
+    private final String name;
+
+    /**
+     * The attributes of this element
+     */
+    @NotNull
+    private final Map<String, String> attributes;
+
+    /**
+     * The child that was last visited, or null if no child is being visited
+     */
+    @Nullable
+    private StAXElementReader child;
+
+    /**
+     * Whether the end of this element has been read
+     */
+    private boolean finished;
+
+    /**
+     * The factory for the document builders used to convert elements to DOM elements
+     */
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+
+    /**
+     * Creates a new reader for the element the stream reader is currently positioned at
+     *
+     * @param reader the stream reader, positioned at the start of an element
+     */
+    StAXElementReader(@NotNull XMLStreamReader reader) {
+        assert reader.isStartElement() : "reader isn't positioned at the start of an element";
+
+        this.reader = reader;
+        this.name = getQualifiedName(reader.getPrefix(), reader.getLocalName());
+        this.attributes = new HashMap<>();
+
+        for (int i = 0; i < reader.getAttributeCount(); i++)
+            attributes.put(getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                reader.getAttributeValue(i));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Contract(pure = true)
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Contract(pure = true)
+    @Override
+    public boolean hasAttribute(@NotNull String name) {
+        return attributes.containsKey(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Contract(pure = true)
+    @Override
+    public String getAttribute(@NotNull String name) {
+        return attributes.getOrDefault(name, "");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public ElementReader nextChild() {
+        if (finished)
+            return null;
+
+        if (child != null) {
+            child.skip();
+            child = null;
+        }
+
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    child = new StAXElementReader(reader);
+
+                    return child;
+                }
+
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    finished = true;
+
+                    return null;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new XMLLoadException(e);
+        }
+
+        throw new XMLLoadException("unexpected end of file inside element '" + name + "'");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public String getText() {
+        assert child == null && !finished : "children have already been visited";
+
+        StringBuilder text = new StringBuilder();
+        int depth = 0;
+
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        text.append(reader.getText());
+                        break;
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (depth-- == 0) {
+                            finished = true;
+
+                            return text.toString();
+                        }
+                        break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new XMLLoadException(e);
+        }
+
+        throw new XMLLoadException("unexpected end of file inside element '" + name + "'");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Override
+    public Element toElement() {
+        assert child == null && !finished : "children have already been visited";
+
+        Document document;
+
+        try {
+            DocumentBuilder documentBuilder;
+
+            //document builder factories aren't guaranteed to be thread safe
+            synchronized (DOCUMENT_BUILDER_FACTORY) {
+                documentBuilder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+            }
+
+            document = documentBuilder.newDocument();
+        } catch (ParserConfigurationException e) {
+            throw new XMLLoadException(e);
+        }
+
+        Element element = document.createElement(name);
+        attributes.forEach(element::setAttribute);
+        document.appendChild(element);
+
+        Deque<Element> elements = new ArrayDeque<>();
+        elements.push(element);
+
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        elements.peek().appendChild(document.createTextNode(reader.getText()));
+                        break;
+                    case XMLStreamConstants.START_ELEMENT:
+                        Element childElement = document.createElement(getQualifiedName(reader.getPrefix(),
+                            reader.getLocalName()));
+
+                        for (int i = 0; i < reader.getAttributeCount(); i++)
+                            childElement.setAttribute(getQualifiedName(reader.getAttributePrefix(i),
+                                reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+
+                        elements.peek().appendChild(childElement);
+                        elements.push(childElement);
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        elements.pop();
+
+                        if (elements.isEmpty()) {
+                            finished = true;
+
+                            return element;
+                        }
+                        break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new XMLLoadException(e);
+        }
+
+        throw new XMLLoadException("unexpected end of file inside element '" + name + "'");
+    }
+
+    /**
+     * Reads the remainder of this element, without processing it
+     *
+     * @throws XMLLoadException when the underlying file couldn't be read
+     */
+    private void skip() {
+        if (finished)
+            return;
+
+        if (child != null) {
+            child.skip();
+            child = null;
+        }
+
+        int depth = 0;
+
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT)
+                    depth++;
+                else if (event == XMLStreamConstants.END_ELEMENT && depth-- == 0) {
+                    finished = true;
+
+                    return;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new XMLLoadException(e);
+        }
+
+        throw new XMLLoadException("unexpected end of file inside element '" + name + "'");
+    }
+
+    /**
+     * Returns the qualified name for the given prefix and local name
+     *
+     * @param prefix the prefix, may be null or empty
+     * @param localName the local name
+     * @return the qualified name
+     */
+    @NotNull
+    @Contract(pure = true)
+    private static String getQualifiedName(@Nullable String prefix, @NotNull String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.GuiLocation;
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import com.github.stefvanschie.inventoryframework.pane.StaticPane;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compiled static pane
+ */
+public class StaticPaneTemplate extends PaneTemplate {
+
+    /**
+     * The position and size of the pane
+     */
+    private final int x, y, length, height;
+
+    /**
+     * The rotation, or null if it wasn't specified
+     */
+    @Nullable
+    private final Integer rotation;
+
+    /**
+     * Whether the pane is flipped horizontally and vertically, or null if it wasn't specified
+     */
+    @Nullable
+    private final Boolean flipHorizontally, flipVertically;
+
+    /**
+     * The attributes every pane has
+     */
+    @NotNull
+    private final PaneAttributes attributes;
+
+    /**
+     * The items of the pane
+     */
+    @NotNull
+    private final List<ItemTemplate> items;
+
+    /**
+     * The positions of the items, with the x and y coordinate of the item at index i stored at index 2i and 2i + 1
+     * respectively
+     */
+    @NotNull
+    private final int[] positions;
+
+    /**
+     * Compiles a static pane from the given element
+     *
+     * @param element the element
+     * @throws XMLLoadException when the element doesn't describe a valid static pane
+     */
+    public StaticPaneTemplate(@NotNull Element element) {
+        this(new DOMElementReader(element));
+    }
+
+    /**
+     * Compiles a static pane from the given element
+     *
+     * @param element the element
+     * @throws XMLLoadException when the element doesn't describe a valid static pane
+     */
+    StaticPaneTemplate(@NotNull ElementReader element) {
+        try {
+            this.x = Integer.parseInt(element.getAttribute("x"));
+            this.y = Integer.parseInt(element.getAttribute("y"));
+            this.length = Integer.parseInt(element.getAttribute("length"));
+            this.height = Integer.parseInt(element.getAttribute("height"));
+
+            this.rotation = element.hasAttribute("rotation") ? Integer.parseInt(element.getAttribute("rotation")) :
+                null;
+            this.flipHorizontally = element.hasAttribute("flipHorizontally") ?
+                Boolean.parseBoolean(element.getAttribute("flipHorizontally")) : null;
+            this.flipVertically = element.hasAttribute("flipVertically") ?
+                Boolean.parseBoolean(element.getAttribute("flipVertically")) : null;
+
+            this.attributes = new PaneAttributes(element);
+
+            List<ItemTemplate> items = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+
+            if (!attributes.isPopulated()) {
+                for (ElementReader child = element.nextChild(); child != null; child = element.nextChild()) {
+                    int itemX = Integer.parseInt(child.getAttribute("x"));
+                    int itemY = Integer.parseInt(child.getAttribute("y"));
+
+                    //items outside the pane can't be shown, like items added to the pane itself
+                    if (itemX < 0 || itemX >= length || itemY < 0 || itemY >= height)
+                        continue;
+
+                    positions.add(itemX);
+                    positions.add(itemY);
+                    items.add(new ItemTemplate(child));
+                }
+            }
+
+            this.items = Collections.unmodifiableList(items);
+            this.positions = positions.stream().mapToInt(Integer::intValue).toArray();
+        } catch (NumberFormatException e) {
+            throw new XMLLoadException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NotNull
+    @Contract("null -> fail")
+    @Override
+    public StaticPane instantiate(@NotNull Object instance) {
+        StaticPane staticPane = new StaticPane(new GuiLocation(x, y), length, height);
+
+        if (rotation != null)
+            staticPane.setRotation(rotation);
+
+        if (flipHorizontally != null)
+            staticPane.flipHorizontally(flipHorizontally);
+
+        if (flipVertically != null)
+            staticPane.flipVertically(flipVertically);
+
+        attributes.apply(staticPane, instance);
+
+        for (int i = 0; i < items.size(); i++)
+            staticPane.addItem(items.get(i).instantiate(instance), positions[2 * i], positions[2 * i + 1]);
+
+        return staticPane;
+    }
+}
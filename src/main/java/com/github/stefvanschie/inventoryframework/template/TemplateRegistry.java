@@ -0,0 +1,304 @@
+package com.github.stefvanschie.inventoryframework.template;
+
+import com.github.stefvanschie.inventoryframework.exception.XMLLoadException;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A registry of compiled gui templates by name. Templates can be preloaded in bulk, in which case all files are
+ * compiled in parallel, so they're ready to be instantiated once they're needed.
+ */
+public class TemplateRegistry {
+
+    /**
+     * The templates by name
+     */
+    @NotNull
+    private final Map<String, GuiTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * The pool the files are compiled on
+     */
+    @NotNull
+    private final ForkJoinPool pool;
+
+    /**
+     * The file extension of XML files
+     */
+    private static final String EXTENSION = ".xml";
+
+    /**
+     * Creates a new registry which compiles files on the common fork join pool
+     */
+    public TemplateRegistry() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new registry which compiles files on the given pool
+     *
+     * @param pool the pool
+     */
+    public TemplateRegistry(@NotNull ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Compiles all XML files inside the given directory and its subdirectories in parallel and registers them. Each
+     * template is registered under the path of its file relative to the directory, with '/' as separator and without
+     * the file extension, e.g. 'shop/weapons'. Files that couldn't be compiled are skipped; their errors are part of
+     * the returned results.
+     *
+     * @param directory the directory
+     * @return the result for each file, ordered by name
+     * @throws XMLLoadException when the directory couldn't be read
+     */
+    @NotNull
+    public List<Result> preload(@NotNull Path directory) {
+        Map<String, Callable<InputStream>> sources = new HashMap<>();
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(Files::isRegularFile)
+                .filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                .forEach(path -> {
+                    String name = directory.relativize(path).toString().replace(path.getFileSystem().getSeparator(),
+                        "/");
+
+                    sources.put(name.substring(0, name.length() - EXTENSION.length()),
+                        () -> Files.newInputStream(path));
+                });
+        } catch (IOException e) {
+            throw new XMLLoadException(e);
+        }
+
+        return preload(sources);
+    }
+
+    /**
+     * Compiles the given resources of the plugin in parallel and registers them. Each template is registered under the
+     * name of its resource without the file extension. Resources that couldn't be compiled are skipped; their errors
+     * are part of the returned results.
+     *
+     * @param plugin the plugin the resources belong to
+     * @param resources the names of the resources
+     * @return the result for each resource, ordered by name
+     */
+    @NotNull
+    public List<Result> preload(@NotNull Plugin plugin, @NotNull Collection<String> resources) {
+        Map<String, Callable<InputStream>> sources = new HashMap<>();
+
+        for (String resource : resources) {
+            String name = resource.endsWith(EXTENSION) ?
+                resource.substring(0, resource.length() - EXTENSION.length()) : resource;
+
+            sources.put(name, () -> {
+                InputStream inputStream = plugin.getResource(resource);
+
+                if (inputStream == null)
+                    throw new XMLLoadException("unknown resource '" + resource + "'");
+
+                return inputStream;
+            });
+        }
+
+        return preload(sources);
+    }
+
+    /**
+     * Compiles the given sources in parallel and registers them under their names
+     *
+     * @param sources the sources, by name
+     * @return the result for each source, ordered by name
+     */
+    @NotNull
+    private List<Result> preload(@NotNull Map<String, Callable<InputStream>> sources) {
+        List<ForkJoinTask<Result>> tasks = sources.entrySet().stream()
+            .map(entry -> pool.submit(() -> compile(entry.getKey(), entry.getValue())))
+            .collect(Collectors.toList());
+
+        List<Result> results = new ArrayList<>(tasks.size());
+
+        for (ForkJoinTask<Result> task : tasks) {
+            Result result = task.join();
+
+            if (result.template != null)
+                templates.put(result.name, result.template);
+
+            results.add(result);
+        }
+
+        results.sort(Comparator.comparing(Result::getName));
+
+        return results;
+    }
+
+    /**
+     * Compiles a single source, measuring how long it takes
+     *
+     * @param name the name of the source
+     * @param source the source
+     * @return the result
+     */
+    @NotNull
+    private static Result compile(@NotNull String name, @NotNull Callable<InputStream> source) {
+        long start = System.nanoTime();
+
+        try (InputStream inputStream = source.call()) {
+            GuiTemplate template = GuiTemplate.compile(inputStream);
+
+            return new Result(name, template, null, Duration.ofNanos(System.nanoTime() - start));
+        } catch (XMLLoadException e) {
+            return new Result(name, null, e, Duration.ofNanos(System.nanoTime() - start));
+        } catch (Exception e) {
+            return new Result(name, null, new XMLLoadException(e), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Registers a template under the given name, replacing any template previously registered under this name
+     *
+     * @param name the name
+     * @param template the template
+     */
+    public void register(@NotNull String name, @NotNull GuiTemplate template) {
+        templates.put(name, template);
+    }
+
+    /**
+     * Returns the template with the given name
+     *
+     * @param name the name
+     * @return the template or null if no template is registered under this name
+     */
+    @Nullable
+    @Contract(pure = true)
+    public GuiTemplate get(@NotNull String name) {
+        return templates.get(name);
+    }
+
+    /**
+     * Returns all registered templates by name
+     *
+     * @return an unmodifiable view of the templates
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Map<String, GuiTemplate> getTemplates() {
+        return Collections.unmodifiableMap(templates);
+    }
+
+    /**
+     * The outcome of compiling a single file
+     */
+    public static final class Result {
+
+        /**
+         * The name the file is registered under
+         */
+        @NotNull
+        private final String name;
+
+        /**
+         * The compiled template, or null if the file couldn't be compiled
+         */
+        @Nullable
+        private final GuiTemplate template;
+
+        /**
+         * The reason the file couldn't be compiled, or null if it was compiled
+         */
+        @Nullable
+        private final XMLLoadException error;
+
+        /**
+         * How long reading and compiling the file took
+         */
+        @NotNull
+        private final Duration duration;
+
+        /**
+         * Creates a new result
+         *
+         * @param name the name of the file
+         * @param template the compiled template
+         * @param error the reason the file couldn't be compiled
+         * @param duration how long compiling took
+         */
+        private Result(@NotNull String name, @Nullable GuiTemplate template, @Nullable XMLLoadException error,
+                       @NotNull Duration duration) {
+            this.name = name;
+            this.template = template;
+            this.error = error;
+            this.duration = duration;
+        }
+
+        /**
+         * Returns the name the file is registered under
+         *
+         * @return the name
+         */
+        @NotNull
+        @Contract(pure = true)
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the compiled template
+         *
+         * @return the template or null if the file couldn't be compiled
+         */
+        @Nullable
+        @Contract(pure = true)
+        public GuiTemplate getTemplate() {
+            return template;
+        }
+
+        /**
+         * Returns the reason the file couldn't be compiled
+         *
+         * @return the error or null if the file was compiled
+         */
+        @Nullable
+        @Contract(pure = true)
+        public XMLLoadException getError() {
+            return error;
+        }
+
+        /**
+         * Returns how long reading and compiling the file took
+         *
+         * @return the duration
+         */
+        @NotNull
+        @Contract(pure = true)
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns whether the file was compiled
+         *
+         * @return true if the file was compiled, false otherwise
+         */
+        @Contract(pure = true)
+        public boolean isSuccessful() {
+            return template != null;
+        }
+    }
+}
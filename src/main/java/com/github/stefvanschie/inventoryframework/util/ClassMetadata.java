@@ -0,0 +1,200 @@
+package com.github.stefvanschie.inventoryframework.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The public methods and fields of a class, indexed for the lookups done while loading guis from XML files. The
+ * metadata of each class is computed once and shared by all loaders. It is associated with the class itself, so it
+ * doesn't keep the class or its class loader alive once a plugin is unloaded.
+ */
+public final class ClassMetadata {
+
+    /**
+     * The public methods of the class by name, in the order they were returned by {@link Class#getMethods()}
+     */
+    @NotNull
+    private final Map<String, List<Method>> methods = new HashMap<>();
+
+    /**
+     * The public methods of the class by name and parameter count, in the format of name/count
+     */
+    @NotNull
+    private final Map<String, List<Method>> methodsByArity = new HashMap<>();
+
+    /**
+     * The public fields of the class by name
+     */
+    @NotNull
+    private final Map<String, Field> fields = new HashMap<>();
+
+    /**
+     * The event handlers resolved from the methods of the class, or empty if a method couldn't be accessed. These are
+     * resolved when they're first requested, possibly by multiple loaders at the same time.
+     */
+    @NotNull
+    private final Map<Method, Optional<MethodHandle>> eventHandlers = new ConcurrentHashMap<>();
+
+    /**
+     * The metadata of all classes that have been looked up
+     */
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    /**
+     * Creates the metadata of the given class
+     *
+     * @param type the class
+     */
+    private ClassMetadata(@NotNull Class<?> type) {
+        for (Method method : type.getMethods()) {
+            methods.computeIfAbsent(method.getName(), name -> new ArrayList<>(1)).add(method);
+            methodsByArity.computeIfAbsent(getArityKey(method.getName(), method.getParameterCount()),
+                key -> new ArrayList<>(1)).add(method);
+        }
+
+        //fields of subclasses hide fields of super classes, which getField takes into account
+        for (Field field : type.getFields())
+            fields.putIfAbsent(field.getName(), getField(type, field));
+
+        methods.replaceAll((name, list) -> Collections.unmodifiableList(list));
+        methodsByArity.replaceAll((key, list) -> Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Returns all public methods with the given name
+     *
+     * @param name the name of the methods
+     * @return the methods, which may be empty
+     */
+    @NotNull
+    @Contract(pure = true)
+    public List<Method> getMethods(@NotNull String name) {
+        return methods.getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * Returns all public methods with the given name and amount of parameters
+     *
+     * @param name the name of the methods
+     * @param parameterCount the amount of parameters
+     * @return the methods, which may be empty
+     */
+    @NotNull
+    @Contract(pure = true)
+    public List<Method> getMethods(@NotNull String name, int parameterCount) {
+        return methodsByArity.getOrDefault(getArityKey(name, parameterCount), Collections.emptyList());
+    }
+
+    /**
+     * Returns the public field with the given name
+     *
+     * @param name the name of the field
+     * @return the field or null if there is no such field
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Field getField(@NotNull String name) {
+        return fields.get(name);
+    }
+
+    /**
+     * Returns a method handle for calling the given method of the class as an event handler. The handle takes the
+     * instance to call the method on, followed by the event and the remaining arguments of the method, and returns
+     * nothing; all parameters are typed as objects. Static methods ignore the instance and methods without parameters
+     * ignore the event. The handle is resolved once, so callers only have to bind it to their instance.
+     *
+     * @param method the method, which should be one of the public methods of the class
+     * @return the method handle or null if the method couldn't be accessed
+     */
+    @Nullable
+    public MethodHandle getEventHandler(@NotNull Method method) {
+        return eventHandlers.computeIfAbsent(method, ClassMetadata::resolveEventHandler).orElse(null);
+    }
+
+    /**
+     * Returns the metadata of the given class
+     *
+     * @param type the class
+     * @return the metadata
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static ClassMetadata of(@NotNull Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Returns the key under which methods with the given name and amount of parameters are stored
+     *
+     * @param name the name of the method
+     * @param parameterCount the amount of parameters
+     * @return the key
+     */
+    @NotNull
+    @Contract(pure = true)
+    private static String getArityKey(@NotNull String name, int parameterCount) {
+        return name + '/' + parameterCount;
+    }
+
+    /**
+     * Resolves the given method into an event handler, as described by {@link #getEventHandler(Method)}. Access checks
+     * are performed once here, invoking the returned handle doesn't perform any.
+     *
+     * @param method the method
+     * @return the method handle or empty if the method couldn't be accessed
+     */
+    @NotNull
+    private static Optional<MethodHandle> resolveEventHandler(@NotNull Method method) {
+        MethodHandle handle;
+
+        try {
+            method.setAccessible(true);
+
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException | SecurityException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+
+        if (Modifier.isStatic(method.getModifiers()))
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+
+        if (method.getParameterCount() == 0)
+            handle = MethodHandles.dropArguments(handle, 1, Object.class);
+
+        return Optional.of(handle.asType(MethodType.genericMethodType(handle.type().parameterCount())
+            .changeReturnType(void.class)));
+    }
+
+    /**
+     * Returns the field that is found when looking up the name of the given field on the given class
+     *
+     * @param type the class
+     * @param field the field
+     * @return the field that isn't hidden by another field
+     */
+    @NotNull
+    @Contract(pure = true)
+    private static Field getField(@NotNull Class<?> type, @NotNull Field field) {
+        try {
+            return type.getField(field.getName());
+        } catch (NoSuchFieldException e) {
+            return field;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.stefvanschie.inventoryframework.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A precomputed flip and rotation of a two dimensional grid, as applied by panes when displaying their items. Positions
+ * inside the grid are addressed by their index, which is y * length + x. Transforms are immutable and shared between
+ * all panes with the same geometry, so applying one doesn't allocate anything.
+ */
+public final class GridTransform {
+
+    /**
+     * The length of the grid
+     */
+    private final int length;
+
+    /**
+     * The offset from the top left corner, in inventory slots, at which each index is displayed
+     */
+    @NotNull
+    private final int[] offsets;
+
+    /**
+     * The index that is displayed at each position, with the position being addressed by index as well
+     */
+    @NotNull
+    private final int[] indices;
+
+    /**
+     * The maximum length of a grid that is cached
+     */
+    private static final int MAX_LENGTH = 9;
+
+    /**
+     * The maximum height of a grid that is cached
+     */
+    private static final int MAX_HEIGHT = 6;
+
+    /**
+     * The cached transforms, lazily created
+     */
+    private static final GridTransform[] CACHE = new GridTransform[(MAX_LENGTH + 1) * (MAX_HEIGHT + 1) * 4 * 2 * 2];
+
+    /**
+     * Creates a new transform
+     *
+     * @param length the length of the grid
+     * @param height the height of the grid
+     * @param rotation the clockwise rotation in degrees
+     * @param flipHorizontally whether the grid is flipped horizontally
+     * @param flipVertically whether the grid is flipped vertically
+     */
+    private GridTransform(int length, int height, int rotation, boolean flipHorizontally, boolean flipVertically) {
+        this.length = length;
+        this.offsets = new int[length * height];
+        this.indices = new int[length * height];
+
+        //positions that no index is displayed at, which happens when a grid that isn't square is rotated
+        Arrays.fill(indices, -1);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < length; x++) {
+                int newX = flipHorizontally ? length - x - 1 : x;
+                int newY = flipVertically ? height - y - 1 : y;
+
+                Map.Entry<Integer, Integer> coordinates = GeometryUtil.processClockwiseRotation(newX, newY, length,
+                    height, rotation);
+
+                int rotatedX = coordinates.getKey(), rotatedY = coordinates.getValue();
+
+                offsets[y * length + x] = rotatedY * 9 + rotatedX;
+
+                if (rotatedX >= 0 && rotatedX < length && rotatedY >= 0 && rotatedY < height)
+                    indices[rotatedY * length + rotatedX] = y * length + x;
+            }
+        }
+    }
+
+    /**
+     * Returns the offset from the top left corner of the grid, in inventory slots, at which the given index is
+     * displayed. The offset is measured in a nine slot wide inventory, so it can be added to the slot of the top left
+     * corner directly.
+     *
+     * @param index the index
+     * @return the offset
+     */
+    @Contract(pure = true)
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Returns the index that is displayed at the given position, undoing the transform
+     *
+     * @param x the displayed x coordinate
+     * @param y the displayed y coordinate
+     * @return the index or -1 if no index is displayed at this position
+     */
+    @Contract(pure = true)
+    public int getIndex(int x, int y) {
+        return indices[y * length + x];
+    }
+
+    /**
+     * Returns the transform for the given geometry. Transforms for grids which fit inside an inventory are cached.
+     *
+     * @param length the length of the grid
+     * @param height the height of the grid
+     * @param rotation the clockwise rotation in degrees, in increments of 90
+     * @param flipHorizontally whether the grid is flipped horizontally
+     * @param flipVertically whether the grid is flipped vertically
+     * @return the transform
+     */
+    @NotNull
+    public static GridTransform of(int length, int height, int rotation, boolean flipHorizontally,
+                                   boolean flipVertically) {
+        if (length < 0 || length > MAX_LENGTH || height < 0 || height > MAX_HEIGHT || rotation < 0 ||
+            rotation >= 360)
+            return new GridTransform(length, height, rotation, flipHorizontally, flipVertically);
+
+        int key = (((length * (MAX_HEIGHT + 1) + height) * 4 + rotation / 90) * 2 + (flipHorizontally ? 1 : 0)) * 2 +
+            (flipVertically ? 1 : 0);
+
+        //transforms are immutable, so creating the same one twice from different threads is harmless
+        GridTransform transform = CACHE[key];
+
+        if (transform == null) {
+            transform = new GridTransform(length, height, rotation, flipHorizontally, flipVertically);
+            CACHE[key] = transform;
+        }
+
+        return transform;
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.stefvanschie.inventoryframework.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Converts item stacks to the server's own item stack implementation. Inventories convert every item stack put into
+ * them which isn't already in this form, including a copy of its item meta, so converting an item stack once and
+ * reusing it saves this work for every time it's put in an inventory afterwards.
+ */
+public class ItemStackUtil {
+
+    /**
+     * The method copying an item stack into the server's implementation, or null if the server doesn't have one we
+     * know of
+     */
+    @Nullable
+    private static final MethodHandle AS_CRAFT_COPY = findAsCraftCopy();
+
+    /**
+     * Returns a copy of the given item stack in the server's own item stack implementation. If the server doesn't have
+     * an implementation we know of, a regular copy is returned instead.
+     *
+     * @param item the item stack
+     * @return the copy
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static ItemStack toNative(@NotNull ItemStack item) {
+        if (AS_CRAFT_COPY == null)
+            return item.clone();
+
+        try {
+            return (ItemStack) AS_CRAFT_COPY.invokeExact(item);
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
+        }
+
+        return item.clone();
+    }
+
+    /**
+     * Looks up CraftBukkit's method for copying an item stack. The package of this method depends on the server
+     * version, so it's derived from the package of the server implementation.
+     *
+     * @return the method, or null if it couldn't be found
+     */
+    @Nullable
+    private static MethodHandle findAsCraftCopy() {
+        Server server = Bukkit.getServer();
+
+        //outside of a running server
+        if (server == null)
+            return null;
+
+        Class<?> serverClass = server.getClass();
+        String name = serverClass.getPackage().getName() + ".inventory.CraftItemStack";
+
+        try {
+            Class<?> craftItemStack = Class.forName(name, true, serverClass.getClassLoader());
+            MethodType type = MethodType.methodType(craftItemStack, ItemStack.class);
+
+            return MethodHandles.publicLookup().findStatic(craftItemStack, "asCraftCopy", type)
+                .asType(MethodType.methodType(ItemStack.class, ItemStack.class));
+        } catch (ReflectiveOperationException e) {
+            //not running on craftbukkit, item stacks are converted by the inventory instead
+            return null;
+        }
+    }
+}
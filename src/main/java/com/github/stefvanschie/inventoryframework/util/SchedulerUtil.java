@@ -0,0 +1,44 @@
+package com.github.stefvanschie.inventoryframework.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executors backed by the Bukkit scheduler, for use with completable futures
+ */
+public class SchedulerUtil {
+
+    /**
+     * Returns an executor which runs tasks asynchronously on the scheduler's worker threads
+     *
+     * @param plugin the plugin the tasks are scheduled for
+     * @return the executor
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static Executor getAsyncExecutor(@NotNull Plugin plugin) {
+        return runnable -> Bukkit.getScheduler().runTaskAsynchronously(plugin, runnable);
+    }
+
+    /**
+     * Returns an executor which runs tasks on the main thread. Tasks submitted from the main thread are run
+     * immediately, other tasks are run on the next tick.
+     *
+     * @param plugin the plugin the tasks are scheduled for
+     * @return the executor
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static Executor getMainThreadExecutor(@NotNull Plugin plugin) {
+        return runnable -> {
+            if (Bukkit.isPrimaryThread())
+                runnable.run();
+            else
+                Bukkit.getScheduler().runTask(plugin, runnable);
+        };
+    }
+}
@@ -2,9 +2,12 @@ package com.github.stefvanschie.inventoryframework.util;
 
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.w3c.dom.Element;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.function.Consumer;
@@ -21,34 +24,94 @@ public class XMLUtil {
     @Nullable
     @Contract(pure = true)
     public static Consumer<InventoryClickEvent> loadOnClickAttribute(Object instance, Element element) {
-        for (Method method : instance.getClass().getMethods()) {
-            if (!method.getName().equals(element.getAttribute("onLocalClick")))
-                continue;
+        return loadEventConsumer(instance, element.getAttribute("onLocalClick"), InventoryClickEvent.class);
+    }
 
+    /**
+     * Loads a consumer for an event from the given instance. The consumer calls the first method with the given name
+     * which either takes no parameters or takes a single parameter the event can be assigned to. The method is
+     * resolved into a method handle once per class, so creating and calling the consumer doesn't perform any
+     * reflective access checks.
+     *
+     * @param instance the object instance
+     * @param methodName the name of the method
+     * @param eventClass the class of the event
+     * @param <T> the type of the event
+     * @return the consumer to be called with the event or null if no suitable method exists
+     */
+    @Nullable
+    @Contract(pure = true)
+    public static <T> Consumer<T> loadEventConsumer(@NotNull Object instance, @NotNull String methodName,
+                                                    @NotNull Class<T> eventClass) {
+        for (Method method : ClassMetadata.of(instance.getClass()).getMethods(methodName)) {
             int parameterCount = method.getParameterCount();
 
-            if (parameterCount == 0) {
-                return event -> {
-                    try {
-                        method.setAccessible(true);
-                        method.invoke(instance);
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        e.printStackTrace();
-                    }
-                };
-            } else if (parameterCount == 1 &&
-                    InventoryClickEvent.class.isAssignableFrom(method.getParameterTypes()[0])) {
-                return event -> {
-                    try {
-                        method.setAccessible(true);
-                        method.invoke(instance, event);
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        e.printStackTrace();
-                    }
-                };
-            }
+            if (parameterCount != 0 &&
+                    (parameterCount != 1 || !method.getParameterTypes()[0].isAssignableFrom(eventClass)))
+                continue;
+
+            MethodHandle handle = ClassMetadata.of(instance.getClass()).getEventHandler(method);
+
+            if (handle == null)
+                return null;
+
+            //the handle takes (Object, Object)void, so it can be invoked exactly regardless of the method's signature
+            MethodHandle consumer = handle.bindTo(instance);
+
+            return event -> {
+                try {
+                    consumer.invokeExact((Object) event);
+                } catch (Throwable throwable) {
+                    throwable.printStackTrace();
+                }
+            };
         }
 
         return null;
     }
+
+    /**
+     * Sets the public field with the given name on the instance to the given value
+     *
+     * @param instance the object instance
+     * @param fieldName the name of the field
+     * @param value the new value of the field
+     */
+    public static void setField(@NotNull Object instance, @NotNull String fieldName, @Nullable Object value) {
+        Field field = ClassMetadata.of(instance.getClass()).getField(fieldName);
+
+        if (field == null) {
+            new NoSuchFieldException(fieldName).printStackTrace();
+            return;
+        }
+
+        try {
+            field.setAccessible(true);
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Invokes all methods with the given name on the instance that take a single parameter the argument can be assigned
+     * to
+     *
+     * @param instance the object instance
+     * @param methodName the name of the methods
+     * @param argument the argument to invoke the methods with
+     */
+    public static void invokeMethod(@NotNull Object instance, @NotNull String methodName, @NotNull Object argument) {
+        for (Method method : ClassMetadata.of(instance.getClass()).getMethods(methodName, 1)) {
+            if (!method.getParameterTypes()[0].isInstance(argument))
+                continue;
+
+            try {
+                method.setAccessible(true);
+                method.invoke(instance, argument);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                e.printStackTrace();
+            }
+        }
+    }
 }